@@ -0,0 +1,151 @@
+package com.minishop.benchmark;
+
+import com.minishop.util.JsonReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CartMergeServlet body parsing: the streaming JsonReader against the
+ * split/replace parser it replaced, on localStorage payloads of the size
+ * the front end sends (product name and price included).
+ *
+ * java -jar benchmarks/target/benchmarks.jar CartMergeParseBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartMergeParseBenchmark {
+
+    @Param({"5", "50"})
+    private int lines;
+
+    private String body;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 1; i <= lines; i++) {
+            if (i > 1) {
+                sb.append(",\n");
+            }
+            sb.append("{\"productId\":").append(i)
+              .append(",\"productName\":\"Produit n°").append(i).append(" - édition limitée\"")
+              .append(",\"price\":").append(1999 + i)
+              .append(",\"quantity\":").append(1 + i % 3).append('}');
+        }
+        body = sb.append(']').toString();
+    }
+
+    @Benchmark
+    public Map<Long, Integer> streaming() throws IOException {
+        try (JsonReader json = new JsonReader(new StringReader(body), Long.MAX_VALUE)) {
+            return parseLines(json);
+        }
+    }
+
+    @Benchmark
+    public Map<Long, Integer> splitBased() throws IOException {
+        StringBuilder buffer = new StringBuilder();
+        String line;
+        try (BufferedReader reader = new BufferedReader(new StringReader(body))) {
+            while ((line = reader.readLine()) != null) {
+                buffer.append(line);
+            }
+        }
+        return legacyParse(buffer.toString().trim());
+    }
+
+    // Same loop as CartMergeServlet.parseLines, without the item cap
+
+    private static Map<Long, Integer> parseLines(JsonReader json) throws IOException {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        json.beginArray();
+        while (json.hasNext()) {
+            long productId = -1;
+            int quantity = 0;
+            json.beginObject();
+            while (json.hasNext()) {
+                String name = json.nextName();
+                if (name.equals("productId")) {
+                    productId = json.nextLong();
+                } else if (name.equals("quantity")) {
+                    quantity = json.nextInt();
+                } else {
+                    json.skipValue();
+                }
+            }
+            json.endObject();
+            if (productId > 0 && quantity > 0) {
+                quantities.merge(productId, quantity, Integer::sum);
+            }
+        }
+        json.endArray();
+        json.endDocument();
+        return quantities;
+    }
+
+    // Baseline: the parser CartMergeServlet used before JsonReader
+
+    private static Map<Long, Integer> legacyParse(String json) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        json = json.trim();
+        if (json.startsWith("[")) {
+            json = json.substring(1);
+        }
+        if (json.endsWith("]")) {
+            json = json.substring(0, json.length() - 1);
+        }
+        json = json.trim();
+        if (json.isEmpty()) {
+            return quantities;
+        }
+
+        for (String item : json.split("\\},\\s*\\{")) {
+            item = item.replace("{", "").replace("}", "").trim();
+            if (item.isEmpty()) {
+                continue;
+            }
+            long productId = -1;
+            int quantity = 0;
+            for (String field : item.split(",")) {
+                String[] keyValue = field.trim().split(":");
+                if (keyValue.length == 2) {
+                    String key = keyValue[0].trim().replace("\"", "");
+                    String value = keyValue[1].trim().replace("\"", "");
+                    try {
+                        if (key.equals("productId")) {
+                            productId = Long.parseLong(value);
+                        } else if (key.equals("quantity")) {
+                            quantity = Integer.parseInt(value);
+                        }
+                    } catch (NumberFormatException e) {
+                        // The servlet logged and skipped these
+                    }
+                }
+            }
+            if (productId > 0 && quantity > 0) {
+                quantities.merge(productId, quantity, Integer::sum);
+            }
+        }
+        return quantities;
+    }
+}
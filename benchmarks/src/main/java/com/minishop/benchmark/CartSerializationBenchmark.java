@@ -0,0 +1,101 @@
+package com.minishop.benchmark;
+
+import com.minishop.model.Cart;
+import com.minishop.model.CartItem;
+import com.minishop.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Session cart serialization, as done by Tomcat session persistence or
+ * replication: the compact Externalizable Cart against the map of CartItem
+ * holding full products it replaced. Bytes per cart are printed at setup.
+ *
+ * java -jar benchmarks/target/benchmarks.jar CartSerializationBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartSerializationBenchmark {
+
+    private static final String DESCRIPTION =
+        "Chaise en chêne massif, assise rembourrée, finition huilée. Livrée montée. "
+        + "Dimensions : 45 x 52 x 90 cm. Garantie deux ans, entretien avec un chiffon sec.";
+
+    @Param({"1", "5", "20"})
+    private int lines;
+
+    private Cart cart;
+    private Map<Long, CartItem> legacyCart;
+    private byte[] cartBytes;
+    private byte[] legacyBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        cart = new Cart();
+        legacyCart = new HashMap<>();
+        for (int i = 1; i <= lines; i++) {
+            Product product = new Product(i, "Chaise modèle " + i, DESCRIPTION, 4990 + i, 100);
+            cart.addProduct(product, 1 + i % 3);
+            legacyCart.put(product.getId(), new CartItem(product, 1 + i % 3));
+        }
+        cartBytes = serialize(cart);
+        legacyBytes = serialize(legacyCart);
+        System.out.printf("%n%d lines: compact %d B, legacy %d B%n", lines, cartBytes.length, legacyBytes.length);
+    }
+
+    @Benchmark
+    public byte[] writeCompact() throws IOException {
+        return serialize(cart);
+    }
+
+    @Benchmark
+    public Object readCompact() throws IOException, ClassNotFoundException {
+        return deserialize(cartBytes);
+    }
+
+    @Benchmark
+    public byte[] writeLegacy() throws IOException {
+        return serialize(legacyCart);
+    }
+
+    @Benchmark
+    public Object readLegacy() throws IOException, ClassNotFoundException {
+        return deserialize(legacyBytes);
+    }
+
+    private static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] data) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return in.readObject();
+        }
+    }
+}
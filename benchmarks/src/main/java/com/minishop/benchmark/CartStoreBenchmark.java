@@ -0,0 +1,106 @@
+package com.minishop.benchmark;
+
+import com.minishop.config.AppConstants;
+import com.minishop.dao.CartStore;
+import com.minishop.dao.impl.FileCartStore;
+import com.minishop.dao.impl.MemoryCartStore;
+import com.minishop.model.Cart;
+import com.minishop.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Latency of one cart operation per CartStore implementation, on 5-line
+ * carts spread over 1000 users. The file store runs against a temporary
+ * directory on the local disk; a shared volume adds its own latency.
+ *
+ * java -jar benchmarks/target/benchmarks.jar CartStoreBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartStoreBenchmark {
+
+    private static final int USERS = 1000;
+
+    @Param({"memory", "file"})
+    private String store;
+
+    private CartStore cartStore;
+    private Path directory;
+    private Cart cart;
+    private long nextUser;
+
+    @Setup
+    public void setUp() throws IOException {
+        if (store.equals("file")) {
+            directory = Files.createTempDirectory("minishop-carts");
+            cartStore = new FileCartStore(directory, AppConstants.CART_STORE_LOCK_STRIPES);
+        } else {
+            cartStore = new MemoryCartStore(AppConstants.CART_STORE_MEMORY_TTL_MS,
+                AppConstants.CART_STORE_MEMORY_MAX_ENTRIES, AppConstants.CART_STORE_LOCK_STRIPES);
+        }
+
+        cart = new Cart();
+        for (int i = 1; i <= 5; i++) {
+            cart.addProduct(new Product(i, "Produit " + i, "", 990 + i, 100), i);
+        }
+        for (long user = 1; user <= USERS; user++) {
+            cartStore.save(user, cart);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (directory != null) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private long user() {
+        return nextUser++ % USERS + 1;
+    }
+
+    @Benchmark
+    public Cart load() {
+        return cartStore.load(user());
+    }
+
+    @Benchmark
+    public void save() {
+        cartStore.save(user(), cart);
+    }
+
+    @Benchmark
+    public Cart update() {
+        // Read, modify and write back under the user's lock, as CartService does
+        return cartStore.update(user(), current -> {
+            current.updateQuantity(1, current.getItem(1).getQuantity() % 5 + 1);
+            return current;
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package com.minishop.benchmark;
+
+import com.minishop.model.Cart;
+import com.minishop.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart totals as read on every page render (header badge and cart page):
+ * the running item count and total kept by Cart, against recomputing them
+ * over every line as before. The running totals should not grow with the
+ * number of lines.
+ *
+ * java -jar benchmarks/target/benchmarks.jar CartTotalsBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartTotalsBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int lines;
+
+    private Cart cart;
+
+    // Same lines as the cart, for the recomputing baseline
+    private int[] quantities;
+    private int[] unitPriceCents;
+
+    @Setup
+    public void setUp() {
+        cart = new Cart();
+        quantities = new int[lines];
+        unitPriceCents = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            quantities[i] = 1 + i % 3;
+            unitPriceCents[i] = 990 + i;
+            cart.addProduct(new Product(i + 1, "Produit " + (i + 1), "", unitPriceCents[i], 100), quantities[i]);
+        }
+    }
+
+    @Benchmark
+    public void runningTotals(Blackhole bh) {
+        bh.consume(cart.getItemCount());
+        bh.consume(cart.getTotalCents());
+    }
+
+    @Benchmark
+    public void recomputedTotals(Blackhole bh) {
+        int count = 0;
+        for (int i = 0; i < lines; i++) {
+            count += quantities[i];
+        }
+        bh.consume(count);
+
+        long total = 0;
+        for (int i = 0; i < lines; i++) {
+            total += (long) unitPriceCents[i] * quantities[i];
+        }
+        bh.consume(total);
+    }
+}
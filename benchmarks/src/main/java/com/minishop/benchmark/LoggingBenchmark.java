@@ -0,0 +1,109 @@
+package com.minishop.benchmark;
+
+import com.minishop.config.AppConstants;
+import com.minishop.util.AsyncLogHandler;
+import com.minishop.util.Log;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+
+/**
+ * Logging cost on the request threads, with 4 threads logging at once as
+ * under load on /products:
+ * - syncInfoConcat: the old ProductListServlet line, INFO with string
+ *   concatenation through a synchronous handler;
+ * - fineDisabled: the same line now, through Log at FINE, which is off;
+ * - asyncInfo: a line still at INFO, through Log and AsyncLogHandler.
+ * Handlers write to a null stream, so disk speed is left out. When the async
+ * buffer is full, INFO records are dropped; the count is printed at teardown.
+ *
+ * java -jar benchmarks/target/benchmarks.jar LoggingBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    private static final String ASYNC_LOGGER = LoggingBenchmark.class.getName();
+    private static final String SYNC_LOGGER = ASYNC_LOGGER + ".sync";
+
+    private static final Log LOG = Log.get(LoggingBenchmark.class);
+
+    // Held so the configured loggers are not garbage collected
+    private Logger asyncLogger;
+    private Logger syncLogger;
+    private AsyncLogHandler asyncHandler;
+
+    private int size = 20;
+
+    @Setup
+    public void setUp() {
+        asyncLogger = Logger.getLogger(ASYNC_LOGGER);
+        asyncLogger.setUseParentHandlers(false);
+        asyncLogger.setLevel(Level.INFO);
+        asyncHandler = new AsyncLogHandler(new Handler[] {nullHandler()}, AppConstants.LOG_BUFFER_CAPACITY);
+        asyncLogger.addHandler(asyncHandler);
+
+        syncLogger = Logger.getLogger(SYNC_LOGGER);
+        syncLogger.setUseParentHandlers(false);
+        syncLogger.setLevel(Level.INFO);
+        syncLogger.addHandler(nullHandler());
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%nAsync records dropped: %d%n", asyncHandler.getDroppedCount());
+        asyncLogger.removeHandler(asyncHandler);
+        asyncHandler.close();
+    }
+
+    @Benchmark
+    public void syncInfoConcat() {
+        syncLogger.info("Displaying " + size + " products");
+    }
+
+    @Benchmark
+    public void fineDisabled() {
+        LOG.fine("Displaying {0} products", size);
+    }
+
+    @Benchmark
+    public void asyncInfo() {
+        LOG.info("Displaying {0} products", size);
+    }
+
+    private static Handler nullHandler() {
+        StreamHandler handler = new StreamHandler(OutputStream.nullOutputStream(), new SimpleFormatter()) {
+            @Override
+            public synchronized void publish(LogRecord record) {
+                super.publish(record);
+                // Console and file handlers flush every record
+                flush();
+            }
+        };
+        handler.setLevel(Level.ALL);
+        return handler;
+    }
+}
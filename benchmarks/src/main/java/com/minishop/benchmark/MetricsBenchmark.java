@@ -0,0 +1,84 @@
+package com.minishop.benchmark;
+
+import com.minishop.util.LatencyHistogram;
+import com.minishop.util.MetricsRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the metrics recorded on every request: TimingFilter's route
+ * histogram lookup and record, a bare histogram record, and a labelled
+ * counter. Run by 4 threads to include contention on shared series. The
+ * /admin/metrics scrape is timed separately, over 50 routes.
+ *
+ * java -jar benchmarks/target/benchmarks.jar MetricsBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+    private static final String METRIC = "benchmark_request_duration";
+    private static final int ROUTES = 50;
+
+    private final MetricsRegistry metrics = MetricsRegistry.get();
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final String[] routes = new String[ROUTES];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int i = 0; i < ROUTES; i++) {
+            routes[i] = "/app/route" + i;
+            LatencyHistogram h = metrics.histogram(METRIC, "Benchmark", "route", routes[i]);
+            for (int v = 0; v < 10_000; v++) {
+                h.record(ThreadLocalRandom.current().nextLong(50, 200_000));
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void routeHistogram() {
+        String route = routes[ThreadLocalRandom.current().nextInt(ROUTES)];
+        metrics.histogram(METRIC, "Benchmark", "route", route)
+            .record(ThreadLocalRandom.current().nextLong(50, 200_000));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void histogramRecord() {
+        histogram.record(ThreadLocalRandom.current().nextLong(50, 200_000));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void labelledCounter() {
+        metrics.counter("benchmark_rejected_total", "Benchmark", "path", "/login").increment();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String scrape() throws IOException {
+        StringWriter out = new StringWriter(64 * 1024);
+        metrics.writePrometheus(out);
+        return out.toString();
+    }
+}
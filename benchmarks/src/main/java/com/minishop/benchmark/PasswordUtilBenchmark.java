@@ -0,0 +1,87 @@
+package com.minishop.benchmark;
+
+import com.minishop.util.PasswordUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Legacy SHA-256 password path of PasswordUtil: hex encoding and digest
+ * lookup, against the String.format / getInstance version it replaced.
+ *
+ * java -jar benchmarks/target/benchmarks.jar PasswordUtilBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordUtilBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private byte[] digest;
+    private String stored;
+
+    @Setup
+    public void setUp() {
+        digest = legacySha256Bytes(PASSWORD);
+        stored = PasswordUtil.sha256(PASSWORD);
+    }
+
+    @Benchmark
+    public String hexLookupTable() {
+        return PasswordUtil.bytesToHex(digest);
+    }
+
+    @Benchmark
+    public String hexStringFormat() {
+        return legacyBytesToHex(digest);
+    }
+
+    @Benchmark
+    public String sha256ClonedDigest() {
+        return PasswordUtil.sha256(PASSWORD);
+    }
+
+    @Benchmark
+    public String sha256GetInstance() {
+        return legacyBytesToHex(legacySha256Bytes(PASSWORD));
+    }
+
+    @Benchmark
+    public boolean constantTimeEquals() {
+        return PasswordUtil.constantTimeEquals(PasswordUtil.sha256(PASSWORD), stored);
+    }
+
+    // Baseline: the implementation before the lookup table and cloned digests
+
+    private static byte[] legacySha256Bytes(String input) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(input.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String legacyBytesToHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,114 @@
+package com.minishop.benchmark;
+
+import com.minishop.config.AppConstants;
+import com.minishop.config.ConnectionPool;
+import com.minishop.config.DbConfig;
+import com.minishop.dao.ProductDao;
+import com.minishop.dao.impl.ProductDaoJdbc;
+import com.minishop.dao.impl.StockDaoJdbc;
+import com.minishop.dao.impl.TransactionTemplate;
+import com.minishop.model.Product;
+import com.minishop.service.InsufficientStockException;
+import com.minishop.service.ProductCache;
+import com.minishop.service.ProductService;
+import com.minishop.service.StockService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load check for StockService against the real MySQL database of
+ * AppConstants.DB_URL: concurrent buyers hammer one product until it is sold
+ * out, then the final stock and the number of successful reservations are
+ * compared. Not a JMH benchmark, since it needs the database and checks a
+ * result rather than timing a method.
+ *
+ * java -cp benchmarks/target/benchmarks.jar com.minishop.benchmark.StockOversellCheck [buyers] [attempts] [stock]
+ *
+ * Exits with status 1 if stock was oversold or went missing.
+ */
+public final class StockOversellCheck {
+
+    private StockOversellCheck() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int buyers = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int attemptsPerBuyer = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int initialStock = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+
+        ConnectionPool pool = DbConfig.getPool();
+        ProductDao productDao = new ProductDaoJdbc(pool);
+        ProductService productService = new ProductService(productDao,
+            new ProductCache(AppConstants.PRODUCT_CACHE_TTL_MS, AppConstants.PRODUCT_CACHE_MAX_ENTRIES));
+        StockService stockService = new StockService(new StockDaoJdbc(),
+            new TransactionTemplate(pool, AppConstants.TX_MAX_ATTEMPTS), productService);
+
+        Product product = new Product("Oversell check", "Temporary product, deleted at the end of the run",
+                                      100, initialStock);
+        productDao.create(product);
+        long productId = product.getId();
+
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(buyers);
+        boolean ok;
+        try {
+            for (int b = 0; b < buyers; b++) {
+                Thread buyer = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < attemptsPerBuyer; i++) {
+                        try {
+                            stockService.reserve(Map.of(productId, 1));
+                            reserved.incrementAndGet();
+                        } catch (InsufficientStockException e) {
+                            refused.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                }, "buyer-" + b);
+                buyer.start();
+                threads.add(buyer);
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Thread buyer : threads) {
+                buyer.join();
+            }
+            long elapsedNanos = System.nanoTime() - begin;
+
+            int finalStock = productDao.findById(productId).getStock();
+            int attempts = buyers * attemptsPerBuyer;
+            int expectedReserved = Math.min(attempts - errors.get(), initialStock);
+
+            System.out.printf("%d buyers x %d attempts on stock %d%n", buyers, attemptsPerBuyer, initialStock);
+            System.out.printf("reserved %d, refused %d, errors %d, final stock %d%n",
+                              reserved.get(), refused.get(), errors.get(), finalStock);
+            System.out.printf("%.0f reservation attempts/s over %d ms%n",
+                              attempts * 1e9 / elapsedNanos, elapsedNanos / 1_000_000);
+
+            ok = finalStock >= 0
+                && finalStock == initialStock - reserved.get()
+                && reserved.get() == expectedReserved;
+            System.out.println(ok ? "OK: no oversell" : "FAILED: stock and reservations disagree");
+        } finally {
+            productDao.delete(productId);
+            DbConfig.shutdown();
+        }
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+}
@@ -6,9 +6,109 @@ package com.minishop.config;
 public final class AppConstants {
 
     // Database Configuration
-    public static final String DB_URL = "jdbc:mysql://localhost:3306/minishop?useSSL=false&serverTimezone=Europe/Paris&allowPublicKeyRetrieval=true";
+    public static final String DB_URL = "jdbc:mysql://localhost:3306/minishop?useSSL=false&serverTimezone=Europe/Paris&allowPublicKeyRetrieval=true&useServerPrepStmts=true&rewriteBatchedStatements=true";
     public static final String DB_USERNAME = "root";
     public static final String DB_PASSWORD = "";
+
+    // Connection Pool
+    public static final int DB_POOL_MIN_SIZE = 2;
+    public static final int DB_POOL_MAX_SIZE = 10;
+    public static final long DB_POOL_ACQUIRE_TIMEOUT_MS = 5_000;
+    public static final long DB_POOL_IDLE_TIMEOUT_MS = 10 * 60_000;
+    public static final int DB_POOL_VALIDATION_TIMEOUT_SEC = 2;
+    public static final long DB_POOL_LEAK_DETECTION_MS = 60_000;
+    public static final long DB_POOL_HOUSEKEEPING_MS = 30_000;
+    public static final int DB_STATEMENT_CACHE_SIZE = 64;
+
+    // Transactions retried on deadlock / lock wait timeout
+    public static final int TX_MAX_ATTEMPTS = 3;
+
+    // Product Catalogue Cache
+    public static final long PRODUCT_CACHE_TTL_MS = 60_000;
+    public static final int PRODUCT_CACHE_MAX_ENTRIES = 10_000;
+
+    // Threading
+    // -Dminishop.virtualThreads=true runs request-side executors on virtual threads (Java 21+)
+    public static final String VIRTUAL_THREADS_PROPERTY = "minishop.virtualThreads";
+
+    // Cart Store
+    // -Dminishop.cartStore.dir=/shared/carts keeps carts in files shared by all nodes
+    public static final String CART_STORE_DIR_PROPERTY = "minishop.cartStore.dir";
+    public static final int CART_STORE_LOCK_STRIPES = 64;
+    // In-memory store only: carts untouched this long are dropped, and at most this many are kept
+    public static final long CART_STORE_MEMORY_TTL_MS = 24 * 60 * 60_000L;
+    public static final int CART_STORE_MEMORY_MAX_ENTRIES = 100_000;
+
+    // Guest Cart Merge
+    public static final int CART_MERGE_MAX_BODY_CHARS = 64 * 1024;
+    public static final int CART_MERGE_MAX_ITEMS = 100;
+    public static final long CART_MERGE_TIMEOUT_MS = 5_000;
+    public static final int CART_MERGE_THREADS = 8;
+    public static final int CART_MERGE_QUEUE_CAPACITY = 256;
+
+    // Product Search
+    public static final int SEARCH_RESULTS_LIMIT = 48;
+    public static final int SEARCH_MAX_QUERY_LENGTH = 100;
+
+    // Background Job Queue
+    public static final int JOB_QUEUE_CAPACITY = 1_000;
+    public static final int JOB_WORKER_THREADS = 4;
+    public static final long JOB_SUBMIT_TIMEOUT_MS = 50;
+    public static final long JOB_POLL_INTERVAL_MS = 5_000;
+    public static final int JOB_MAX_ATTEMPTS = 5;
+    public static final long JOB_RETRY_BASE_DELAY_MS = 1_000;
+    // A RUNNING job whose owner has not renewed it for this long is given to another worker
+    public static final long JOB_LEASE_MS = 60_000;
+    public static final long JOB_LEASE_RENEW_INTERVAL_MS = JOB_LEASE_MS / 3;
+
+    // Rate Limiting (POST requests, per user or per IP)
+    // -Dminishop.rateLimits=... overrides the default, format path=requests/seconds
+    public static final String RATE_LIMITS_PROPERTY = "minishop.rateLimits";
+    public static final String RATE_LIMITS_DEFAULT =
+        "/login=10/60,/app/cart/add=30/10,/app/cart/merge=5/10";
+    public static final long RATE_LIMIT_EVICT_INTERVAL_MS = 60_000;
+
+    // Metrics: quantiles on /admin/metrics cover the last one to two windows
+    public static final long METRICS_QUANTILE_WINDOW_MS = 60_000;
+
+    // Slow query tracing: -Dminishop.slowQueryMs=200 traces DAO calls and reports those over 200ms.
+    // Off (0) by default; can also be changed from the admin area.
+    public static final String SLOW_QUERY_THRESHOLD_PROPERTY = "minishop.slowQueryMs";
+    public static final int SLOW_QUERY_BUFFER_SIZE = 50;
+    public static final long SLOW_QUERY_MAX_THRESHOLD_MS = 3_600_000;
+
+    // Logging: records of this logger and its children go through AsyncLogHandler
+    public static final String LOG_ROOT = "com.minishop";
+    public static final int LOG_BUFFER_CAPACITY = 8_192;
+
+    // Catalogue Pagination
+    public static final int PRODUCTS_PAGE_SIZE = 12;
+    public static final int ADMIN_PRODUCTS_PAGE_SIZE = 20;
+
+    // User Cache (login path)
+    // Writes made by the application invalidate their entry; accounts created or changed directly
+    // in the database may be served stale for up to the TTL (negative TTL for new accounts)
+    public static final long USER_CACHE_TTL_MS = 5 * 60_000;
+    public static final long USER_CACHE_NEGATIVE_TTL_MS = 60_000;
+    // Lookups by ID check remember-me tokens: a token revoked on one node still works on others this long
+    public static final long USER_CACHE_TOKEN_TTL_MS = 30_000;
+    public static final int USER_CACHE_MAX_ENTRIES = 10_000;
+
+    // Password Hashing
+    // PBKDF2 cost: about 100ms per hash on a 2023 server core; raise over time, old hashes are upgraded at login
+    public static final int PASSWORD_HASH_ITERATIONS = 310_000;
+    public static final int PASSWORD_VERIFY_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    public static final int PASSWORD_VERIFY_QUEUE_CAPACITY = 64;
+    public static final long PASSWORD_VERIFY_TIMEOUT_MS = 5_000;
+
+    // Remember-me Token
+    public static final String AUTH_TOKEN_COOKIE = "MINISHOP_AUTH";
+    public static final int REMEMBER_ME_MAX_AGE_SEC = 30 * 24 * 60 * 60;
+    // -Dminishop.auth.secret=... signs tokens; must be identical on every node.
+    // Deployment fails without it, unless -Dminishop.dev=true (random key, development only)
+    public static final String AUTH_TOKEN_SECRET_PROPERTY = "minishop.auth.secret";
+    public static final String DEV_MODE_PROPERTY = "minishop.dev";
+
     // Session Attributes (as per specification)
     public static final String AUTH_USER = "AUTH_USER";
     public static final String CART = "CART";
@@ -24,6 +124,7 @@ public final class AppConstants {
     public static final String JSP_LOGIN = "/WEB-INF/jsp/public/login.jsp";
     public static final String JSP_PRODUCTS = "/WEB-INF/jsp/public/products.jsp";
     public static final String JSP_PRODUCT_DETAIL = "/WEB-INF/jsp/public/product-detail.jsp";
+    public static final String JSP_SEARCH = "/WEB-INF/jsp/public/search.jsp";
     public static final String JSP_CART = "/WEB-INF/jsp/app/cart.jsp";
     public static final String JSP_ERROR_404 = "/WEB-INF/jsp/error/404.jsp";
     public static final String JSP_ERROR_500 = "/WEB-INF/jsp/error/500.jsp";
@@ -31,6 +132,7 @@ public final class AppConstants {
     // Admin JSP Paths
     public static final String JSP_ADMIN_PRODUCTS = "/WEB-INF/jsp/admin/products.jsp";
     public static final String JSP_ADMIN_PRODUCT_FORM = "/WEB-INF/jsp/admin/product-form.jsp";
+    public static final String JSP_ADMIN_SLOW_QUERIES = "/WEB-INF/jsp/admin/slow-queries.jsp";
 
     // Servlet Mappings (protected routes use /app/* prefix)
     public static final String SERVLET_HOME = "/home";
@@ -38,16 +140,20 @@ public final class AppConstants {
     public static final String SERVLET_LOGOUT = "/logout";
     public static final String SERVLET_PRODUCTS = "/products";
     public static final String SERVLET_PRODUCT_DETAIL = "/product";
+    public static final String SERVLET_SEARCH = "/search";
     public static final String SERVLET_CART = "/app/cart";
     public static final String SERVLET_CART_ADD = "/app/cart/add";
     public static final String SERVLET_CART_REMOVE = "/app/cart/remove";
     public static final String SERVLET_CART_MERGE = "/app/cart/merge";
+    public static final String SERVLET_CHECKOUT = "/app/checkout";
 
     // Admin Servlet Mappings
     public static final String SERVLET_ADMIN_PRODUCTS = "/admin/products";
     public static final String SERVLET_ADMIN_PRODUCT_CREATE = "/admin/products/create";
     public static final String SERVLET_ADMIN_PRODUCT_EDIT = "/admin/products/edit";
     public static final String SERVLET_ADMIN_PRODUCT_DELETE = "/admin/products/delete";
+    public static final String SERVLET_ADMIN_METRICS = "/admin/metrics";
+    public static final String SERVLET_ADMIN_SLOW_QUERIES = "/admin/slow-queries";
     // Private constructor to prevent instantiation
     private AppConstants() {
         throw new AssertionError("Cannot instantiate constants class");
@@ -0,0 +1,211 @@
+package com.minishop.config;
+
+import com.minishop.dao.CartStore;
+import com.minishop.dao.OrderDao;
+import com.minishop.dao.ProductDao;
+import com.minishop.dao.StockDao;
+import com.minishop.dao.UserDao;
+import com.minishop.dao.impl.FileCartStore;
+import com.minishop.dao.impl.JobDaoJdbc;
+import com.minishop.dao.impl.MemoryCartStore;
+import com.minishop.dao.impl.OrderDaoJdbc;
+import com.minishop.dao.impl.ProductDaoJdbc;
+import com.minishop.dao.impl.StockDaoJdbc;
+import com.minishop.dao.impl.TransactionTemplate;
+import com.minishop.dao.impl.UserDaoJdbc;
+import com.minishop.service.AuthService;
+import com.minishop.service.CartService;
+import com.minishop.service.CheckoutService;
+import com.minishop.service.JobQueue;
+import com.minishop.service.OrderConfirmationHandler;
+import com.minishop.service.ProductCache;
+import com.minishop.service.ProductService;
+import com.minishop.service.StockService;
+import com.minishop.service.TokenService;
+import com.minishop.service.UserCache;
+import com.minishop.util.MetricsRegistry;
+import com.minishop.util.PasswordUtil;
+
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Application wiring.
+ * The pool, caches, DAOs and services are built together at deploy time
+ * (see AppLifecycleListener) and published through one volatile field, so
+ * every later lookup is a plain read with no lock.
+ */
+public final class AppContext {
+
+    private static final Logger LOGGER = Logger.getLogger(AppContext.class.getName());
+
+    private static final ReentrantLock LOCK = new ReentrantLock();
+    private static volatile AppContext current;
+
+    private final ConnectionPool pool;
+    private final ProductService productService;
+    private final CartService cartService;
+    private final AuthService authService;
+    private final StockService stockService;
+    private final CheckoutService checkoutService;
+    private final JobQueue jobQueue;
+    private final TokenService tokenService;
+
+    private AppContext(ConnectionPool pool) {
+        this.pool = pool;
+
+        TransactionTemplate transactions = new TransactionTemplate(pool, AppConstants.TX_MAX_ATTEMPTS);
+        ProductDao productDao = new ProductDaoJdbc(pool);
+        UserDao userDao = new UserDaoJdbc(pool);
+        OrderDao orderDao = new OrderDaoJdbc(pool);
+        StockDao stockDao = new StockDaoJdbc();
+
+        this.productService = new ProductService(productDao,
+            new ProductCache(AppConstants.PRODUCT_CACHE_TTL_MS, AppConstants.PRODUCT_CACHE_MAX_ENTRIES));
+        productService.buildSearchIndex();
+        this.cartService = new CartService(productService, createCartStore());
+        this.authService = new AuthService(userDao,
+            new UserCache(AppConstants.USER_CACHE_TTL_MS, AppConstants.USER_CACHE_NEGATIVE_TTL_MS,
+                AppConstants.USER_CACHE_TOKEN_TTL_MS, AppConstants.USER_CACHE_MAX_ENTRIES),
+            ExecutorConfig.getPasswordExecutor(), PasswordUtil.hash(UUID.randomUUID().toString()));
+        this.jobQueue = new JobQueue(new JobDaoJdbc(pool));
+        jobQueue.register(OrderConfirmationHandler.TYPE, new OrderConfirmationHandler(orderDao));
+
+        this.stockService = new StockService(stockDao, transactions, productService);
+        this.checkoutService = new CheckoutService(orderDao, cartService, stockService, productService,
+            transactions, jobQueue);
+        this.tokenService = TokenService.fromSecret(System.getProperty(AppConstants.AUTH_TOKEN_SECRET_PROPERTY),
+            Boolean.getBoolean(AppConstants.DEV_MODE_PROPERTY), authService::findUser);
+
+        registerMetrics(MetricsRegistry.get());
+    }
+
+    /**
+     * Expose the figures each component already keeps on /admin/metrics.
+     * Request and SQL timings are recorded directly by TimingFilter and the pool.
+     */
+    private void registerMetrics(MetricsRegistry metrics) {
+        metrics.gauge("db_pool_active_connections", "Connections currently borrowed", pool::getActiveCount);
+        metrics.gauge("db_pool_idle_connections", "Connections idle in the pool", pool::getIdleCount);
+        metrics.gauge("db_pool_waiting_threads", "Threads waiting for a connection", pool::getWaitingCount);
+        metrics.gauge("db_pool_max_connections", "Pool size limit", pool::getMaxSize);
+        metrics.register("db_connection_acquire", "Time to obtain a pooled connection", pool.getAcquireTime());
+        metrics.counter("db_statement_cache_hits_total", "Prepared statement cache hits", pool::getStatementCacheHits);
+        metrics.counter("db_statement_cache_misses_total", "Prepared statement cache misses",
+            pool::getStatementCacheMisses);
+        metrics.counter("db_slow_calls_total", "DAO calls over the slow query threshold",
+            pool.getTracer()::getSlowCount);
+
+        metrics.counter("product_cache_hits_total", "Product cache hits", () -> productService.getCacheStats().getHits());
+        metrics.counter("product_cache_misses_total", "Product cache misses",
+            () -> productService.getCacheStats().getMisses());
+        metrics.counter("user_cache_hits_total", "User cache hits", () -> authService.getUserCacheStats().getHits());
+        metrics.counter("user_cache_misses_total", "User cache misses",
+            () -> authService.getUserCacheStats().getMisses());
+
+        metrics.gauge("password_verify_queue_depth", "Logins waiting for a verification thread",
+            authService::getVerifyQueueDepth);
+        metrics.counter("password_verify_rejected_total", "Logins refused because verification was saturated",
+            authService::getVerifyRejectedCount);
+        metrics.register("password_verify", "Password verification time", authService.getVerifyTime());
+
+        metrics.register("checkout", "Checkout time", checkoutService.getCheckoutLatency());
+        metrics.gauge("job_queue_depth", "Jobs waiting for a worker", jobQueue::getQueueDepth);
+        metrics.counter("jobs_completed_total", "Jobs completed", jobQueue::getCompletedCount);
+        metrics.counter("jobs_failed_total", "Jobs failed permanently", jobQueue::getFailedCount);
+        metrics.register("job_queue_latency", "Time from submission to pickup", jobQueue.getQueueLatency());
+        metrics.register("job_processing", "Job handler time", jobQueue.getProcessingTime());
+    }
+
+    /**
+     * Carts go to files under -Dminishop.cartStore.dir when set (shared by
+     * every node), otherwise they stay in this node's memory.
+     */
+    private static CartStore createCartStore() {
+        String directory = System.getProperty(AppConstants.CART_STORE_DIR_PROPERTY);
+        if (directory == null || directory.isBlank()) {
+            return new MemoryCartStore(AppConstants.CART_STORE_MEMORY_TTL_MS,
+                AppConstants.CART_STORE_MEMORY_MAX_ENTRIES, AppConstants.CART_STORE_LOCK_STRIPES);
+        }
+        LOGGER.info("Carts stored in " + directory);
+        return new FileCartStore(Path.of(directory), AppConstants.CART_STORE_LOCK_STRIPES);
+    }
+
+    /**
+     * The running context. Falls back to building it on first use when the
+     * application runs without the listener (e.g. from a tool or a test).
+     */
+    public static AppContext get() {
+        AppContext context = current;
+        return context != null ? context : start();
+    }
+
+    /**
+     * Build and publish the context unless it already exists.
+     */
+    public static AppContext start() {
+        LOCK.lock();
+        try {
+            if (current == null) {
+                long start = System.nanoTime();
+                current = new AppContext(DbConfig.getPool());
+                LOGGER.info("Application context ready in " + (System.nanoTime() - start) / 1_000_000 + "ms");
+            }
+            return current;
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Stop background work and close the pool, in reverse order of creation.
+     */
+    public static void stop() {
+        LOCK.lock();
+        try {
+            AppContext context = current;
+            current = null;
+            if (context != null) {
+                context.jobQueue.shutdown();
+            }
+            ExecutorConfig.shutdown();
+            DbConfig.shutdown();
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    public ProductService getProductService() {
+        return productService;
+    }
+
+    public CartService getCartService() {
+        return cartService;
+    }
+
+    public AuthService getAuthService() {
+        return authService;
+    }
+
+    public StockService getStockService() {
+        return stockService;
+    }
+
+    public CheckoutService getCheckoutService() {
+        return checkoutService;
+    }
+
+    public JobQueue getJobQueue() {
+        return jobQueue;
+    }
+
+    public TokenService getTokenService() {
+        return tokenService;
+    }
+}
@@ -1,18 +1,23 @@
 package com.minishop.config;
 
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.SQLException;
+import javax.sql.DataSource;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Database configuration and connection management.
+ * Owns the application-wide connection pool shared by every DAO.
  */
-public class DbConfig {
+public final class DbConfig {
 
     private static final Logger LOGGER = Logger.getLogger(DbConfig.class.getName());
-    
+
+    private static volatile ConnectionPool pool;
+
+    // Not a monitor: creating the pool opens connections, which would pin a virtual thread
+    private static final ReentrantLock LOCK = new ReentrantLock();
+
     static {
         // Charger le driver MySQL au démarrage de la classe
         try {
@@ -24,18 +29,80 @@ public class DbConfig {
         }
     }
 
-    public Connection getConnection() throws SQLException {
+    private DbConfig() {
+    }
+
+    /**
+     * Get the shared pooled DataSource, creating it on first use.
+     */
+    public static DataSource getDataSource() {
+        return getPool();
+    }
+
+    public static ConnectionPool getPool() {
+        ConnectionPool p = pool;
+        if (p == null) {
+            LOCK.lock();
+            try {
+                p = pool;
+                if (p == null) {
+                    p = new ConnectionPool(
+                        AppConstants.DB_URL,
+                        AppConstants.DB_USERNAME,
+                        AppConstants.DB_PASSWORD,
+                        AppConstants.DB_POOL_MIN_SIZE,
+                        AppConstants.DB_POOL_MAX_SIZE,
+                        AppConstants.DB_POOL_ACQUIRE_TIMEOUT_MS,
+                        AppConstants.DB_POOL_IDLE_TIMEOUT_MS,
+                        AppConstants.DB_POOL_VALIDATION_TIMEOUT_SEC,
+                        AppConstants.DB_POOL_LEAK_DETECTION_MS,
+                        AppConstants.DB_POOL_HOUSEKEEPING_MS,
+                        AppConstants.DB_STATEMENT_CACHE_SIZE,
+                        new QueryTracer(slowQueryThresholdMs(), AppConstants.SLOW_QUERY_BUFFER_SIZE)
+                    );
+                    pool = p;
+                }
+            } finally {
+                LOCK.unlock();
+            }
+        }
+        return p;
+    }
+
+    /**
+     * Threshold from -Dminishop.slowQueryMs. A bad value turns tracing off
+     * rather than preventing the pool from starting.
+     */
+    private static long slowQueryThresholdMs() {
+        String value = System.getProperty(AppConstants.SLOW_QUERY_THRESHOLD_PROPERTY);
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        try {
+            long thresholdMs = Long.parseLong(value.trim());
+            if (QueryTracer.isValidThreshold(thresholdMs)) {
+                return thresholdMs;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        LOGGER.warning("Ignoring " + AppConstants.SLOW_QUERY_THRESHOLD_PROPERTY + "=" + value
+                       + " (expected 0 to " + AppConstants.SLOW_QUERY_MAX_THRESHOLD_MS + "), slow query tracing off");
+        return 0;
+    }
+
+    /**
+     * Close the pool if it was ever created.
+     */
+    public static void shutdown() {
+        LOCK.lock();
         try {
-            Connection conn = DriverManager.getConnection(
-                AppConstants.DB_URL,
-                AppConstants.DB_USERNAME,
-                AppConstants.DB_PASSWORD
-            );
-            LOGGER.info("Connexion MySQL établie avec succès");
-            return conn;
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Échec de connexion à MySQL", e);
-            throw e;
+            if (pool != null) {
+                pool.close();
+                pool = null;
+            }
+        } finally {
+            LOCK.unlock();
         }
     }
 }
@@ -0,0 +1,202 @@
+package com.minishop.config;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Executors for request work taken off the container threads.
+ * Each pool is bounded in threads and queue, so a burst fails fast with a
+ * rejection instead of piling up; callers turn that into a fallback response.
+ *
+ * With -Dminishop.virtualThreads=true on Java 21+, tasks run on virtual
+ * threads instead and the same total (threads + queue) caps how many may be
+ * in flight; the connection pool still bounds concurrent database work.
+ */
+public final class ExecutorConfig {
+
+    private static final Logger LOGGER = Logger.getLogger(ExecutorConfig.class.getName());
+
+    private static volatile ExecutorService cartMergeExecutor;
+    private static volatile ThreadPoolExecutor passwordExecutor;
+
+    private ExecutorConfig() {
+    }
+
+    /**
+     * Executor for the asynchronous guest cart merge, created on first use.
+     */
+    public static ExecutorService getCartMergeExecutor() {
+        ExecutorService executor = cartMergeExecutor;
+        if (executor == null) {
+            synchronized (ExecutorConfig.class) {
+                executor = cartMergeExecutor;
+                if (executor == null) {
+                    executor = isVirtualThreadsEnabled()
+                        ? newVirtualExecutor("minishop-cart-merge",
+                            AppConstants.CART_MERGE_THREADS + AppConstants.CART_MERGE_QUEUE_CAPACITY)
+                        : newBoundedExecutor("minishop-cart-merge",
+                            AppConstants.CART_MERGE_THREADS, AppConstants.CART_MERGE_QUEUE_CAPACITY);
+                    cartMergeExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Executor for password verification, created on first use.
+     * Always platform threads, whatever the virtual-thread setting: the work is
+     * pure CPU, and the thread count is what keeps it from starving other requests.
+     */
+    public static ThreadPoolExecutor getPasswordExecutor() {
+        ThreadPoolExecutor executor = passwordExecutor;
+        if (executor == null) {
+            synchronized (ExecutorConfig.class) {
+                executor = passwordExecutor;
+                if (executor == null) {
+                    executor = newBoundedExecutor("minishop-password",
+                        AppConstants.PASSWORD_VERIFY_THREADS, AppConstants.PASSWORD_VERIFY_QUEUE_CAPACITY);
+                    passwordExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Whether virtual threads were requested and the running JVM has them.
+     */
+    public static boolean isVirtualThreadsEnabled() {
+        if (!Boolean.getBoolean(AppConstants.VIRTUAL_THREADS_PROPERTY)) {
+            return false;
+        }
+        if (Runtime.version().feature() < 21) {
+            LOGGER.warning(AppConstants.VIRTUAL_THREADS_PROPERTY + " ignored: Java 21+ required, running "
+                           + Runtime.version());
+            return false;
+        }
+        return true;
+    }
+
+    private static ExecutorService newVirtualExecutor(String name, int maxInFlight) {
+        ExecutorService virtual;
+        try {
+            // Looked up reflectively so the default build can keep targeting Java 17
+            virtual = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads unavailable", e);
+        }
+        LOGGER.info("Executor " + name + " started on virtual threads (max " + maxInFlight + " in flight)");
+        return new PermitExecutor(virtual, maxInFlight);
+    }
+
+    private static ThreadPoolExecutor newBoundedExecutor(String name, int threads, int queueCapacity) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            r -> {
+                Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        LOGGER.info("Executor " + name + " started (" + threads + " threads, queue " + queueCapacity + ")");
+        return executor;
+    }
+
+    /**
+     * Stop the executors, giving in-flight tasks a moment to finish.
+     */
+    public static synchronized void shutdown() {
+        if (cartMergeExecutor != null) {
+            stop(cartMergeExecutor);
+            cartMergeExecutor = null;
+        }
+        if (passwordExecutor != null) {
+            stop(passwordExecutor);
+            passwordExecutor = null;
+        }
+    }
+
+    private static void stop(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Caps the number of running tasks on an unbounded executor; over the cap,
+     * execute() is rejected just like a full ThreadPoolExecutor queue.
+     */
+    private static final class PermitExecutor extends AbstractExecutorService {
+
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+
+        private PermitExecutor(ExecutorService delegate, int maxInFlight) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(maxInFlight);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (!permits.tryAcquire()) {
+                throw new RejectedExecutionException("Too many tasks in flight");
+            }
+            try {
+                delegate.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
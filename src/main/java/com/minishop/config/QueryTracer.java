@@ -0,0 +1,276 @@
+package com.minishop.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Slow query tracing for the connection pool.
+ * Each borrow of a connection (one DAO call) is traced in three phases:
+ * waiting for the connection, executing statements, and reading the results
+ * (from the end of an execute to the statement's close, which covers row
+ * mapping in the DAO). Calls slower than the threshold are logged with their
+ * SQL and parameters and kept in a ring buffer for the admin area.
+ * Parameters of statements touching a password column are reduced to their
+ * type and length.
+ *
+ * With a threshold of 0 tracing is off: a borrow costs one volatile read
+ * and nothing is allocated.
+ */
+public class QueryTracer {
+
+    private static final Logger LOGGER = Logger.getLogger(QueryTracer.class.getName());
+
+    // Longer string parameters are cut to keep log lines short
+    private static final int MAX_PARAM_LENGTH = 64;
+    // Statements whose SQL mentions this only report the type and length of their parameters
+    private static final String SENSITIVE_COLUMN = "password";
+    // Frames of application code reported as the caller
+    private static final int CALLER_DEPTH = 3;
+
+    private volatile long thresholdNanos;
+
+    private final AtomicReferenceArray<SlowTrace> recent;
+    private final AtomicLong written = new AtomicLong();
+    private final LongAdder slowCount = new LongAdder();
+
+    /**
+     * @param thresholdMs calls at least this long are reported; 0 disables tracing
+     * @param capacity    number of slow traces kept
+     */
+    public QueryTracer(long thresholdMs, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.recent = new AtomicReferenceArray<>(capacity);
+        setThresholdMs(thresholdMs);
+    }
+
+    public boolean isEnabled() {
+        return thresholdNanos > 0;
+    }
+
+    public long getThresholdMs() {
+        return thresholdNanos / 1_000_000;
+    }
+
+    /**
+     * Change the threshold at runtime; 0 disables tracing for later borrows.
+     *
+     * @throws IllegalArgumentException outside 0..SLOW_QUERY_MAX_THRESHOLD_MS
+     */
+    public void setThresholdMs(long thresholdMs) {
+        if (!isValidThreshold(thresholdMs)) {
+            throw new IllegalArgumentException("Threshold out of range: " + thresholdMs);
+        }
+        this.thresholdNanos = thresholdMs * 1_000_000;
+    }
+
+    public static boolean isValidThreshold(long thresholdMs) {
+        return thresholdMs >= 0 && thresholdMs <= AppConstants.SLOW_QUERY_MAX_THRESHOLD_MS;
+    }
+
+    /**
+     * Begin tracing a borrow that started waiting at startNanos.
+     *
+     * @return the trace, or null when tracing is off
+     */
+    Trace start(long startNanos) {
+        return thresholdNanos > 0 ? new Trace(startNanos, System.nanoTime()) : null;
+    }
+
+    /**
+     * End a borrow; called from the DAO's close(), so the caller is still on the stack.
+     */
+    void finish(Trace trace) {
+        long now = System.nanoTime();
+        long total = now - trace.startNanos;
+        long threshold = thresholdNanos;
+        if (threshold <= 0 || total < threshold) {
+            return;
+        }
+
+        long execute = 0;
+        long mapping = 0;
+        List<String> statements = new ArrayList<>(trace.statements.size());
+        for (StatementTrace statement : trace.statements) {
+            statement.endResults(now);
+            execute += statement.executeNanos;
+            mapping += statement.mappingNanos;
+            statements.add(statement.describe());
+        }
+
+        SlowTrace slow = new SlowTrace(System.currentTimeMillis(), caller(), total,
+            trace.acquiredNanos - trace.startNanos, execute, mapping, statements);
+        recent.set((int) (written.getAndIncrement() % recent.length()), slow);
+        slowCount.increment();
+
+        LOGGER.warning("Slow DAO call " + slow.getCaller() + ": " + slow.getTotalMillis() + "ms (connection "
+                       + slow.getAcquireMillis() + "ms, execute " + slow.getExecuteMillis() + "ms, results "
+                       + slow.getMappingMillis() + "ms) " + String.join(" | ", statements));
+    }
+
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+            .filter(f -> f.getClassName().startsWith("com.minishop.")
+                         && !f.getClassName().startsWith("com.minishop.config."))
+            .limit(CALLER_DEPTH)
+            .map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1) + "." + f.getMethodName())
+            .collect(Collectors.joining(" < ")));
+    }
+
+    /**
+     * Slow traces kept, newest first.
+     */
+    public List<SlowTrace> getRecent() {
+        long end = written.get();
+        int capacity = recent.length();
+        List<SlowTrace> traces = new ArrayList<>(capacity);
+        for (long i = end - 1; i >= 0 && i >= end - capacity; i--) {
+            SlowTrace trace = recent.get((int) (i % capacity));
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        return traces;
+    }
+
+    public int getCapacity() {
+        return recent.length();
+    }
+
+    public long getSlowCount() {
+        return slowCount.sum();
+    }
+
+    /**
+     * One borrow in progress. Only touched by the borrowing thread.
+     */
+    static final class Trace {
+
+        private final long startNanos;
+        private final long acquiredNanos;
+        private final List<StatementTrace> statements = new ArrayList<>(2);
+
+        private Trace(long startNanos, long acquiredNanos) {
+            this.startNanos = startNanos;
+            this.acquiredNanos = acquiredNanos;
+        }
+
+        StatementTrace statement(String sql) {
+            StatementTrace statement = new StatementTrace(sql);
+            statements.add(statement);
+            return statement;
+        }
+    }
+
+    /**
+     * One prepared statement of a traced borrow: its last parameters and accumulated times.
+     */
+    static final class StatementTrace {
+
+        private final String sql;
+        private final boolean sensitive;
+        private Object[] params = new Object[4];
+        private int paramCount;
+        private int executions;
+        private long executeNanos;
+        private long mappingNanos;
+        private long resultsFrom;
+
+        private StatementTrace(String sql) {
+            this.sql = sql;
+            this.sensitive = sql.toLowerCase(Locale.ROOT).contains(SENSITIVE_COLUMN);
+        }
+
+        void param(int index, Object value) {
+            if (index < 1) {
+                return;
+            }
+            if (index > params.length) {
+                params = Arrays.copyOf(params, Math.max(index, params.length * 2));
+            }
+            // Never hold a credential, even truncated: a partial hash is enough to test guesses
+            params[index - 1] = sensitive ? redact(value) : value;
+            paramCount = Math.max(paramCount, index);
+        }
+
+        void clearParams() {
+            Arrays.fill(params, null);
+            paramCount = 0;
+        }
+
+        void executed(long startNanos, long endNanos, boolean hasResults) {
+            executions++;
+            executeNanos += endNanos - startNanos;
+            resultsFrom = hasResults ? endNanos : 0;
+        }
+
+        /**
+         * The results of the last execute are done with (next execute, close, or end of borrow).
+         */
+        void endResults(long nowNanos) {
+            if (resultsFrom != 0) {
+                mappingNanos += nowNanos - resultsFrom;
+                resultsFrom = 0;
+            }
+        }
+
+        private static Redacted redact(Object value) {
+            if (value == null) {
+                return null;
+            }
+            int length = value instanceof CharSequence ? ((CharSequence) value).length()
+                : value instanceof byte[] ? ((byte[]) value).length : -1;
+            return new Redacted(value.getClass().getSimpleName(), length);
+        }
+
+        private String describe() {
+            StringBuilder text = new StringBuilder(sql.length() + 32);
+            text.append(sql).append(" [");
+            for (int i = 0; i < paramCount; i++) {
+                if (i > 0) {
+                    text.append(", ");
+                }
+                Object value = params[i];
+                if (value instanceof CharSequence) {
+                    String s = value.toString();
+                    text.append('\'').append(s.length() > MAX_PARAM_LENGTH ? s.substring(0, MAX_PARAM_LENGTH) + "..." : s)
+                        .append('\'');
+                } else {
+                    text.append(value);
+                }
+            }
+            text.append(']');
+            if (executions > 1) {
+                text.append(" x").append(executions);
+            }
+            return text.toString();
+        }
+    }
+
+    /**
+     * Stands in for the value of a sensitive parameter.
+     */
+    private static final class Redacted {
+
+        private final String type;
+        private final int length;
+
+        private Redacted(String type, int length) {
+            this.type = type;
+            this.length = length;
+        }
+
+        @Override
+        public String toString() {
+            return length >= 0 ? "<" + type + ", " + length + " chars>" : "<" + type + ">";
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.minishop.config;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A DAO call that went over the slow query threshold (see QueryTracer).
+ * Times are wall-clock milliseconds per phase.
+ */
+public final class SlowTrace {
+
+    private final long timestamp;
+    private final String caller;
+    private final long totalNanos;
+    private final long acquireNanos;
+    private final long executeNanos;
+    private final long mappingNanos;
+    private final List<String> statements;
+
+    SlowTrace(long timestamp, String caller, long totalNanos, long acquireNanos,
+              long executeNanos, long mappingNanos, List<String> statements) {
+        this.timestamp = timestamp;
+        this.caller = caller;
+        this.totalNanos = totalNanos;
+        this.acquireNanos = acquireNanos;
+        this.executeNanos = executeNanos;
+        this.mappingNanos = mappingNanos;
+        this.statements = List.copyOf(statements);
+    }
+
+    public Date getTime() {
+        return new Date(timestamp);
+    }
+
+    /**
+     * DAO method and its callers, innermost first.
+     */
+    public String getCaller() {
+        return caller;
+    }
+
+    public long getTotalMillis() {
+        return totalNanos / 1_000_000;
+    }
+
+    /**
+     * Waiting for a pooled connection.
+     */
+    public long getAcquireMillis() {
+        return acquireNanos / 1_000_000;
+    }
+
+    public long getExecuteMillis() {
+        return executeNanos / 1_000_000;
+    }
+
+    /**
+     * Reading and mapping result sets.
+     */
+    public long getMappingMillis() {
+        return mappingNanos / 1_000_000;
+    }
+
+    /**
+     * Each statement's SQL with its last parameters.
+     */
+    public List<String> getStatements() {
+        return statements;
+    }
+}
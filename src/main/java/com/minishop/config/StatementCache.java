@@ -0,0 +1,243 @@
+package com.minishop.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * LRU cache of prepared statements for one physical connection, keyed by SQL text.
+ * Only touched by the thread currently borrowing the connection, so no locking.
+ * A logical close() resets the statement (result set, parameters, pending
+ * batch and any limit or timeout the DAO changed) and keeps it for the next
+ * borrower.
+ */
+class StatementCache {
+
+    private static final Logger LOGGER = Logger.getLogger(StatementCache.class.getName());
+
+    private final Connection physical;
+    private final LinkedHashMap<String, CachedStatement> statements;
+    private final Counters counters;
+    // Uncached statements handed out during the current borrow, closed on release
+    private final List<PreparedStatement> uncached = new ArrayList<>();
+
+    StatementCache(Connection physical, int maxSize, Counters counters) {
+        this.physical = physical;
+        this.counters = counters;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() > maxSize) {
+                    CachedStatement evicted = eldest.getValue();
+                    if (evicted.inUse) {
+                        // Close it once the current user is done with it
+                        evicted.evicted = true;
+                    } else {
+                        closeQuietly(evicted.physical);
+                    }
+                    counters.evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get a prepared statement for the given SQL, reusing a cached one when possible.
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && cached.evicted) {
+            // Closed after a failed reset
+            statements.remove(sql);
+            cached = null;
+        }
+        if (cached != null && !cached.inUse) {
+            counters.hits.increment();
+        } else if (cached != null) {
+            // Same SQL already open on this connection: hand out a plain statement
+            counters.misses.increment();
+            PreparedStatement statement = physical.prepareStatement(sql);
+            uncached.add(statement);
+            return statement;
+        } else {
+            counters.misses.increment();
+            cached = new CachedStatement(physical.prepareStatement(sql));
+            statements.put(sql, cached);
+        }
+        cached.inUse = true;
+        return cached.newHandle();
+    }
+
+    /**
+     * Reset statements a DAO forgot to close before returning the connection.
+     * Their handles are closed too, so a leaked handle cannot reach the next borrower.
+     */
+    void releaseAll() {
+        for (CachedStatement cached : statements.values()) {
+            if (cached.inUse) {
+                cached.reset();
+            }
+        }
+        for (PreparedStatement statement : uncached) {
+            closeQuietly(statement);
+        }
+        uncached.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Error closing cached statement", e);
+        }
+    }
+
+    /**
+     * Pool-wide hit/miss counters shared by every connection's cache.
+     */
+    static final class Counters {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+    }
+
+    private static final class CachedStatement {
+
+        private final PreparedStatement physical;
+        // Driver defaults, restored on reset when a DAO changed them
+        private final int defaultMaxRows;
+        private final int defaultFetchSize;
+        private final int defaultQueryTimeout;
+        private final int defaultMaxFieldSize;
+        private final int defaultFetchDirection;
+        private boolean inUse;
+        private boolean evicted;
+        private boolean batchPending;
+        private boolean settingsChanged;
+        private ResultSet openResultSet;
+        private Handle handle;
+
+        private CachedStatement(PreparedStatement physical) throws SQLException {
+            this.physical = physical;
+            this.defaultMaxRows = physical.getMaxRows();
+            this.defaultFetchSize = physical.getFetchSize();
+            this.defaultQueryTimeout = physical.getQueryTimeout();
+            this.defaultMaxFieldSize = physical.getMaxFieldSize();
+            this.defaultFetchDirection = physical.getFetchDirection();
+        }
+
+        private PreparedStatement newHandle() {
+            handle = new Handle(this);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                StatementCache.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                handle);
+        }
+
+        private void reset() {
+            inUse = false;
+            if (handle != null) {
+                handle.handleClosed = true;
+                handle = null;
+            }
+            try {
+                if (openResultSet != null) {
+                    openResultSet.close();
+                    openResultSet = null;
+                }
+                // A batch left by a failed DAO call would otherwise run with the next one
+                if (batchPending) {
+                    physical.clearBatch();
+                    batchPending = false;
+                }
+                if (settingsChanged) {
+                    physical.setMaxRows(defaultMaxRows);
+                    physical.setFetchSize(defaultFetchSize);
+                    physical.setQueryTimeout(defaultQueryTimeout);
+                    physical.setMaxFieldSize(defaultMaxFieldSize);
+                    physical.setFetchDirection(defaultFetchDirection);
+                    settingsChanged = false;
+                }
+                physical.clearParameters();
+                physical.clearWarnings();
+            } catch (SQLException e) {
+                // Not safe to hand out again
+                LOGGER.log(Level.FINE, "Error resetting cached statement", e);
+                evicted = true;
+            }
+            if (evicted) {
+                closeQuietly(physical);
+            }
+        }
+    }
+
+    private static final class Handle implements InvocationHandler {
+
+        // Setters whose effect would otherwise outlive the borrow
+        private static final Set<String> SETTINGS = Set.of(
+            "setMaxRows", "setLargeMaxRows", "setFetchSize", "setQueryTimeout",
+            "setMaxFieldSize", "setFetchDirection");
+
+        private final CachedStatement cached;
+        private boolean handleClosed;
+
+        private Handle(CachedStatement cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!handleClosed) {
+                        handleClosed = true;
+                        cached.reset();
+                    }
+                    return null;
+                case "isClosed":
+                    return handleClosed;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (handleClosed) {
+                throw new SQLException("Statement is closed");
+            }
+            String name = method.getName();
+            if ("addBatch".equals(name)) {
+                cached.batchPending = true;
+            } else if ("executeBatch".equals(name) || "executeLargeBatch".equals(name) || "clearBatch".equals(name)) {
+                cached.batchPending = false;
+            } else if (SETTINGS.contains(name)) {
+                cached.settingsChanged = true;
+            }
+            try {
+                Object result = method.invoke(cached.physical, args);
+                if (result instanceof ResultSet) {
+                    cached.openResultSet = (ResultSet) result;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
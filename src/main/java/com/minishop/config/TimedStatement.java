@@ -0,0 +1,152 @@
+package com.minishop.config;
+
+import com.minishop.util.LatencyHistogram;
+import com.minishop.util.MetricsRegistry;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Wraps a prepared statement handed out by the pool and records the time of
+ * every execute call in a histogram keyed by the statement's SQL.
+ * The histogram is looked up once, when the statement is prepared.
+ * When the borrow is traced, parameters and phase times also go to the trace.
+ */
+final class TimedStatement implements InvocationHandler {
+
+    static final String METRIC = "db_statement_duration";
+    private static final String HELP = "Prepared statement execution time";
+
+    private final PreparedStatement target;
+    private final LatencyHistogram histogram;
+    // Null unless the borrow is traced
+    private final QueryTracer.StatementTrace trace;
+
+    private TimedStatement(PreparedStatement target, LatencyHistogram histogram, QueryTracer.StatementTrace trace) {
+        this.target = target;
+        this.histogram = histogram;
+        this.trace = trace;
+    }
+
+    static PreparedStatement wrap(PreparedStatement target, String sql, QueryTracer.Trace borrowTrace) {
+        String label = label(sql);
+        LatencyHistogram histogram = MetricsRegistry.get().histogram(METRIC, HELP, "statement", label);
+        return (PreparedStatement) Proxy.newProxyInstance(
+            TimedStatement.class.getClassLoader(),
+            new Class<?>[]{PreparedStatement.class},
+            new TimedStatement(target, histogram, borrowTrace != null ? borrowTrace.statement(label) : null));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                break;
+        }
+        if (trace != null) {
+            return invokeTraced(method, args);
+        }
+        long start = name.startsWith("execute") ? System.nanoTime() : 0;
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            if (start != 0) {
+                histogram.recordSinceNanos(start);
+            }
+        }
+    }
+
+    private Object invokeTraced(Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        boolean execute = name.startsWith("execute");
+        if (execute || "close".equals(name)) {
+            trace.endResults(System.nanoTime());
+        } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+            trace.param((Integer) args[0], "setNull".equals(name) ? null : args[1]);
+        } else if ("clearParameters".equals(name)) {
+            trace.clearParams();
+        }
+
+        long start = execute ? System.nanoTime() : 0;
+        Object result = null;
+        try {
+            result = method.invoke(target, args);
+            return result;
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            if (execute) {
+                long end = System.nanoTime();
+                histogram.record((end - start) / 1_000);
+                trace.executed(start, end, result instanceof ResultSet || Boolean.TRUE.equals(result));
+            }
+        }
+    }
+
+    /**
+     * Metric label for a statement: whitespace collapsed, and placeholder
+     * lists of any length ("?, ?, ?") folded into "?, ..." so that IN
+     * queries built per request share one series.
+     */
+    static String label(String sql) {
+        StringBuilder label = new StringBuilder(sql.length());
+        int i = 0;
+        int n = sql.length();
+        while (i < n) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < n && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (label.length() > 0 && i < n) {
+                    label.append(' ');
+                }
+                continue;
+            }
+            label.append(c);
+            i++;
+            if (c == '?') {
+                int end = skipPlaceholders(sql, i);
+                if (end > i) {
+                    label.append(", ...");
+                    i = end;
+                }
+            }
+        }
+        return label.toString();
+    }
+
+    // Index after the last ", ?" following position i, or i if there is none
+    private static int skipPlaceholders(String sql, int i) {
+        int end = i;
+        int j = i;
+        int n = sql.length();
+        while (true) {
+            while (j < n && sql.charAt(j) == ' ') {
+                j++;
+            }
+            if (j >= n || sql.charAt(j) != ',') {
+                return end;
+            }
+            j++;
+            while (j < n && sql.charAt(j) == ' ') {
+                j++;
+            }
+            if (j >= n || sql.charAt(j) != '?') {
+                return end;
+            }
+            end = ++j;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.minishop.dao;
+
+import com.minishop.model.Cart;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Storage for the carts of logged-in users, keyed by user ID.
+ * Keeping carts out of the HTTP session lets any node serve any user
+ * when the store is shared.
+ */
+public interface CartStore {
+
+    /**
+     * Load a user's cart. Products are not resolved.
+     *
+     * @return the cart, or null if the user has none
+     */
+    Cart load(long userId);
+
+    /**
+     * Save a user's cart, replacing the previous one.
+     */
+    void save(long userId, Cart cart);
+
+    void delete(long userId);
+
+    /**
+     * Read, change and write a user's cart as one step: concurrent updates
+     * of the same user's cart (two tabs, an async merge racing an add) run
+     * one after the other instead of overwriting each other.
+     *
+     * @param change receives the stored cart (products not resolved) or null,
+     *               and returns the cart to keep; null or an empty cart deletes it
+     * @return the cart returned by change
+     */
+    Cart update(long userId, UnaryOperator<Cart> change);
+}
@@ -0,0 +1,66 @@
+package com.minishop.dao;
+
+import com.minishop.model.Job;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Data Access Object interface for persisted background jobs.
+ */
+public interface JobDao {
+
+    /**
+     * Persist a new PENDING job and return it with its generated ID.
+     */
+    Job insert(String type, String payload);
+
+    /**
+     * Persist a new PENDING job inside the caller's transaction, so that it
+     * is committed, or rolled back, together with the caller's own writes.
+     */
+    Job insert(Connection conn, String type, String payload) throws SQLException;
+
+    /**
+     * Move a job from PENDING to RUNNING, leased to owner for leaseMs.
+     * The attempt count is read back from the row, since the caller's copy
+     * of the job may predate other nodes' attempts.
+     *
+     * @return the job's attempt count including this one, or 0 if someone else already won it
+     */
+    int claim(long id, String owner, long leaseMs);
+
+    /**
+     * Extend the lease of every RUNNING job held by owner.
+     *
+     * @return number of leases renewed
+     */
+    int renewLeases(String owner, long leaseMs);
+
+    /**
+     * @return false if owner no longer holds the job (lease expired and recovered)
+     */
+    boolean markDone(long id, String owner);
+
+    /**
+     * Record a failed attempt: back to PENDING after the delay, or FAILED
+     * once the maximum number of attempts is reached.
+     *
+     * @return false if owner no longer holds the job (lease expired and recovered)
+     */
+    boolean markFailed(long id, String owner, String error, long retryDelayMs, int maxAttempts);
+
+    /**
+     * Find PENDING jobs that are due, oldest first.
+     */
+    List<Job> findDue(int limit);
+
+    /**
+     * Put RUNNING jobs whose lease has expired (owner crashed or stalled)
+     * back to PENDING. Jobs held by a live owner are left alone.
+     *
+     * @return number of jobs recovered
+     */
+    int recoverExpired();
+}
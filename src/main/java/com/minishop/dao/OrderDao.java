@@ -0,0 +1,33 @@
+package com.minishop.dao;
+
+import com.minishop.model.Order;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Data Access Object interface for Order entity.
+ */
+public interface OrderDao {
+
+    /**
+     * Insert an order and all its lines on the caller's connection,
+     * so it can share a transaction with the stock decrement.
+     * Sets the generated order ID on the order.
+     */
+    void insert(Connection conn, Order order) throws SQLException;
+
+    /**
+     * Find the order a user placed with a given checkout form token, with its lines.
+     *
+     * @return the order, or null if this token has not been used
+     */
+    Order findByCheckoutToken(long userId, String checkoutToken);
+
+    /**
+     * Move an order from one status to another.
+     *
+     * @return true if the order was in {@code fromStatus} and has been updated
+     */
+    boolean updateStatus(long orderId, String fromStatus, String toStatus);
+}
@@ -1,17 +1,45 @@
 package com.minishop.dao;
 
+import com.minishop.model.PageCursor;
 import com.minishop.model.Product;
 
+import java.util.Collection;
 import java.util.List;
 /**
  * Data Access Object interface for Product entity.
  */
 public interface ProductDao {
 
+    /**
+     * Find every product in (created_at DESC, id DESC) order.
+     * Throws on database errors rather than returning an empty catalogue.
+     */
     List<Product> findAll();
 
     Product findById(long id);
 
+    /**
+     * Find all products whose id is in the given collection, in a single query
+     * per chunk of ids. Unknown ids are simply absent from the result.
+     * Throws on database errors, so that callers never mistake an outage
+     * for products having been deleted.
+     */
+    List<Product> findByIds(Collection<Long> ids);
+
+    /**
+     * Find up to {@code limit} products that come after the cursor
+     * in (created_at DESC, id DESC) order. A null cursor starts at the newest product.
+     * Throws on database errors rather than returning an empty page.
+     */
+    List<Product> findPageAfter(PageCursor after, int limit);
+
+    /**
+     * Find up to {@code limit} products that come just before the cursor,
+     * returned in (created_at DESC, id DESC) order.
+     * Throws on database errors rather than returning an empty page.
+     */
+    List<Product> findPageBefore(PageCursor before, int limit);
+
     // Admin CRUD methods (optional)
     void create(Product product);
 
@@ -0,0 +1,32 @@
+package com.minishop.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Data Access Object for atomic stock updates.
+ * Methods take the caller's connection so they can join a larger transaction.
+ */
+public interface StockDao {
+
+    /**
+     * Decrement stock for every line in one conditional UPDATE.
+     * Rows whose stock is lower than the requested quantity are left untouched.
+     *
+     * @param quantities quantity to take, keyed by product ID (all positive)
+     * @return number of products actually decremented
+     */
+    int decrementIfAvailable(Connection conn, Map<Long, Integer> quantities) throws SQLException;
+
+    /**
+     * Put stock back, e.g. when a reservation is cancelled.
+     */
+    void increment(Connection conn, Map<Long, Integer> quantities) throws SQLException;
+
+    /**
+     * Read current stock levels, keyed by product ID. Unknown IDs are absent.
+     */
+    Map<Long, Integer> findStock(Connection conn, Collection<Long> ids) throws SQLException;
+}
@@ -9,6 +9,25 @@ public interface UserDao {
 
     /**
      * Find a user by their email address.
+     *
+     * @return the user, or null if none has this email
      */
     User findByEmail(String email);
+
+    /**
+     * Find a user by ID.
+     *
+     * @return the user, or null if none has this ID
+     */
+    User findById(long id);
+
+    /**
+     * Replace a user's stored password hash.
+     */
+    void updatePasswordHash(long id, String passwordHash);
+
+    /**
+     * Revoke every remember-me token issued to a user so far.
+     */
+    void incrementTokenVersion(long id);
 }
@@ -0,0 +1,128 @@
+package com.minishop.dao.impl;
+
+import com.minishop.dao.CartStore;
+import com.minishop.model.Cart;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cart store backed by one small file per user.
+ * Point every node at the same directory (e.g. a shared volume) to serve
+ * any user from any node. Files are replaced atomically, so a reader sees
+ * either the old cart or the new one. update() holds a lock on one of a
+ * fixed set of lock files, chosen by user id, so read-modify-write cycles are
+ * serialized across nodes as long as the shared file system honours file
+ * locks (local disks, NFSv4, SMB) and every node uses the same stripe count.
+ */
+public class FileCartStore implements CartStore {
+
+    private static final Logger LOGGER = Logger.getLogger(FileCartStore.class.getName());
+
+    private static final String SUFFIX = ".cart";
+    private static final String LOCK_PREFIX = "stripe-";
+    private static final String LOCK_SUFFIX = ".lock";
+
+    private final Path directory;
+    // A JVM may hold only one FileLock per file: threads of this node queue here first
+    private final StripedLocks locks;
+
+    public FileCartStore(Path directory, int lockStripes) {
+        this.locks = new StripedLocks(lockStripes);
+        try {
+            this.directory = Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot create cart store directory " + directory, e);
+        }
+    }
+
+    @Override
+    public Cart load(long userId) {
+        byte[] data;
+        try {
+            data = Files.readAllBytes(fileFor(userId));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read cart of user " + userId, e);
+        }
+        try {
+            return Cart.fromBytes(data);
+        } catch (IOException e) {
+            // A damaged file must not lock the user out of their cart page
+            LOGGER.log(Level.WARNING, "Discarding unreadable cart of user " + userId, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void save(long userId, Cart cart) {
+        Path target = fileFor(userId);
+        try {
+            Path temp = Files.createTempFile(directory, userId + "-", ".tmp");
+            try {
+                Files.write(temp, cart.toBytes());
+                move(temp, target);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to save cart of user " + userId, e);
+        }
+    }
+
+    @Override
+    public void delete(long userId) {
+        try {
+            Files.deleteIfExists(fileFor(userId));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to delete cart of user " + userId, e);
+        }
+    }
+
+    @Override
+    public Cart update(long userId, UnaryOperator<Cart> change) {
+        ReentrantLock lock = locks.forId(userId);
+        lock.lock();
+        // One lock file per stripe, not per user, so they do not pile up
+        try (FileChannel channel = FileChannel.open(
+                 directory.resolve(LOCK_PREFIX + locks.stripeOf(userId) + LOCK_SUFFIX),
+                 StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            Cart cart = change.apply(load(userId));
+            if (cart == null || cart.isEmpty()) {
+                delete(userId);
+            } else {
+                save(userId, cart);
+            }
+            return cart;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to lock cart of user " + userId, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Path fileFor(long userId) {
+        return directory.resolve(userId + SUFFIX);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.minishop.dao.impl;
+
+import com.minishop.dao.JobDao;
+import com.minishop.model.Job;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * JDBC implementation of JobDao.
+ */
+public class JobDaoJdbc implements JobDao {
+
+    private static final Logger LOGGER = Logger.getLogger(JobDaoJdbc.class.getName());
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private static final String SQL_INSERT =
+        "INSERT INTO jobs (type, payload) VALUES (?, ?)";
+
+    private static final String SQL_CLAIM =
+        "UPDATE jobs SET status = 'RUNNING', attempts = attempts + 1, locked_by = ?, " +
+        "locked_until = CURRENT_TIMESTAMP(3) + INTERVAL ? MICROSECOND WHERE id = ? AND status = 'PENDING'";
+
+    private static final String SQL_CLAIMED_ATTEMPTS =
+        "SELECT attempts FROM jobs WHERE id = ? AND status = 'RUNNING' AND locked_by = ?";
+
+    private static final String SQL_RENEW_LEASES =
+        "UPDATE jobs SET locked_until = CURRENT_TIMESTAMP(3) + INTERVAL ? MICROSECOND " +
+        "WHERE status = 'RUNNING' AND locked_by = ?";
+
+    private static final String SQL_MARK_DONE =
+        "UPDATE jobs SET status = 'DONE', last_error = NULL, locked_by = NULL, locked_until = NULL " +
+        "WHERE id = ? AND status = 'RUNNING' AND locked_by = ?";
+
+    private static final String SQL_MARK_FAILED =
+        "UPDATE jobs SET status = IF(attempts >= ?, 'FAILED', 'PENDING'), last_error = ?, " +
+        "available_at = CURRENT_TIMESTAMP(3) + INTERVAL ? MICROSECOND, locked_by = NULL, locked_until = NULL " +
+        "WHERE id = ? AND status = 'RUNNING' AND locked_by = ?";
+
+    private static final String SQL_FIND_DUE =
+        "SELECT id, type, payload, attempts, created_at FROM jobs " +
+        "WHERE status = 'PENDING' AND available_at <= CURRENT_TIMESTAMP(3) ORDER BY id LIMIT ?";
+
+    // A NULL lease comes from a row claimed before leases existed
+    private static final String SQL_RECOVER_EXPIRED =
+        "UPDATE jobs SET status = 'PENDING', locked_by = NULL, locked_until = NULL " +
+        "WHERE status = 'RUNNING' AND (locked_until IS NULL OR locked_until < CURRENT_TIMESTAMP(3))";
+
+    private final DataSource dataSource;
+
+    public JobDaoJdbc(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public Job insert(String type, String payload) {
+        try (Connection conn = dataSource.getConnection()) {
+            return insert(conn, type, payload);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error inserting job of type " + type, e);
+            throw new RuntimeException("Failed to persist job", e);
+        }
+    }
+
+    @Override
+    public Job insert(Connection conn, String type, String payload) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setString(1, type);
+            stmt.setString(2, payload);
+            stmt.executeUpdate();
+
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException("No ID generated for job");
+                }
+                return new Job(keys.getLong(1), type, payload, 0, new Timestamp(System.currentTimeMillis()));
+            }
+        }
+    }
+
+    @Override
+    public int claim(long id, String owner, long leaseMs) {
+        try (Connection conn = dataSource.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_CLAIM)) {
+                stmt.setString(1, owner);
+                stmt.setLong(2, leaseMs * 1_000);
+                stmt.setLong(3, id);
+                if (stmt.executeUpdate() != 1) {
+                    return 0;
+                }
+            }
+
+            // Still leased to us: nobody else can have bumped the count since
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_CLAIMED_ATTEMPTS)) {
+                stmt.setLong(1, id);
+                stmt.setString(2, owner);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getInt("attempts") : 0;
+                }
+            }
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error claiming job " + id, e);
+            throw new RuntimeException("Failed to update job", e);
+        }
+    }
+
+    @Override
+    public int renewLeases(String owner, long leaseMs) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_RENEW_LEASES)) {
+
+            stmt.setLong(1, leaseMs * 1_000);
+            stmt.setString(2, owner);
+            return stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error renewing job leases", e);
+            return 0;
+        }
+    }
+
+    @Override
+    public boolean markDone(long id, String owner) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_MARK_DONE)) {
+
+            stmt.setLong(1, id);
+            stmt.setString(2, owner);
+            return stmt.executeUpdate() == 1;
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error completing job " + id, e);
+            throw new RuntimeException("Failed to update job", e);
+        }
+    }
+
+    @Override
+    public boolean markFailed(long id, String owner, String error, long retryDelayMs, int maxAttempts) {
+        String message = error == null ? "" : error;
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_MARK_FAILED)) {
+
+            stmt.setInt(1, maxAttempts);
+            stmt.setString(2, message);
+            stmt.setLong(3, retryDelayMs * 1_000);
+            stmt.setLong(4, id);
+            stmt.setString(5, owner);
+            return stmt.executeUpdate() == 1;
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error marking job " + id + " as failed", e);
+            throw new RuntimeException("Failed to update job", e);
+        }
+    }
+
+    @Override
+    public List<Job> findDue(int limit) {
+        List<Job> jobs = new ArrayList<>();
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_FIND_DUE)) {
+
+            stmt.setInt(1, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    jobs.add(new Job(
+                        rs.getLong("id"),
+                        rs.getString("type"),
+                        rs.getString("payload"),
+                        rs.getInt("attempts"),
+                        rs.getTimestamp("created_at")));
+                }
+            }
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding due jobs", e);
+        }
+
+        return jobs;
+    }
+
+    @Override
+    public int recoverExpired() {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_RECOVER_EXPIRED)) {
+
+            return stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error recovering expired jobs", e);
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.minishop.dao.impl;
+
+import com.minishop.dao.CartStore;
+import com.minishop.model.Cart;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cart store for a single node.
+ * Carts are held encoded, so callers never share a mutable instance.
+ * Unlike session carts they do not expire with the session, so the store
+ * is bounded: carts idle for longer than the TTL are dropped, and past
+ * maxEntries the least recently used one makes room.
+ */
+public class MemoryCartStore implements CartStore {
+
+    private final long ttlMs;
+    private final int maxEntries;
+    private final Map<Long, Entry> carts = new ConcurrentHashMap<>();
+    private final StripedLocks locks;
+
+    public MemoryCartStore(long ttlMs, int maxEntries, int lockStripes) {
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+        this.locks = new StripedLocks(lockStripes);
+    }
+
+    @Override
+    public Cart load(long userId) {
+        Entry entry = carts.get(userId);
+        long now = System.currentTimeMillis();
+        if (entry == null) {
+            return null;
+        }
+        if (now - entry.touchedAt > ttlMs) {
+            carts.remove(userId, entry);
+            return null;
+        }
+        try {
+            return Cart.fromBytes(entry.data);
+        } catch (IOException e) {
+            // Written by this process: cannot be malformed
+            throw new IllegalStateException("Corrupted cart for user " + userId, e);
+        }
+    }
+
+    @Override
+    public void save(long userId, Cart cart) {
+        long now = System.currentTimeMillis();
+        if (carts.size() >= maxEntries && !carts.containsKey(userId)) {
+            evict(now);
+        }
+        carts.put(userId, new Entry(cart.toBytes(), now));
+    }
+
+    @Override
+    public void delete(long userId) {
+        carts.remove(userId);
+    }
+
+    @Override
+    public Cart update(long userId, UnaryOperator<Cart> change) {
+        ReentrantLock lock = locks.forId(userId);
+        lock.lock();
+        try {
+            Cart cart = change.apply(load(userId));
+            if (cart == null || cart.isEmpty()) {
+                delete(userId);
+            } else {
+                save(userId, cart);
+            }
+            return cart;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        return carts.size();
+    }
+
+    /**
+     * Drop expired carts, or the least recently used one if none has expired.
+     * Only runs when the store is full, so the linear scan is acceptable.
+     */
+    private void evict(long now) {
+        Long oldest = null;
+        long oldestTouch = Long.MAX_VALUE;
+        for (Map.Entry<Long, Entry> e : carts.entrySet()) {
+            long touchedAt = e.getValue().touchedAt;
+            if (now - touchedAt > ttlMs) {
+                carts.remove(e.getKey(), e.getValue());
+            } else if (touchedAt < oldestTouch) {
+                oldestTouch = touchedAt;
+                oldest = e.getKey();
+            }
+        }
+        if (carts.size() >= maxEntries && oldest != null) {
+            carts.remove(oldest);
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] data;
+        private final long touchedAt;
+
+        private Entry(byte[] data, long touchedAt) {
+            this.data = data;
+            this.touchedAt = touchedAt;
+        }
+    }
+}
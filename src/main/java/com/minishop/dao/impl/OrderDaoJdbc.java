@@ -0,0 +1,121 @@
+package com.minishop.dao.impl;
+
+import com.minishop.dao.OrderDao;
+import com.minishop.model.Order;
+import com.minishop.model.OrderItem;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * JDBC implementation of OrderDao.
+ * Lines are written with a single JDBC batch, which the driver rewrites into
+ * one multi-row INSERT (rewriteBatchedStatements), whatever the line count.
+ */
+public class OrderDaoJdbc implements OrderDao {
+
+    private static final Logger LOGGER = Logger.getLogger(OrderDaoJdbc.class.getName());
+
+    private static final String SQL_INSERT_ORDER =
+        "INSERT INTO orders (user_id, total_cents, status, checkout_token) VALUES (?, ?, ?, ?)";
+
+    private static final String SQL_FIND_BY_CHECKOUT_TOKEN =
+        "SELECT o.id, o.status, o.created_at, i.product_id, i.product_name, i.unit_price_cents, i.quantity " +
+        "FROM orders o JOIN order_items i ON i.order_id = o.id " +
+        "WHERE o.user_id = ? AND o.checkout_token = ? ORDER BY i.id";
+
+    private static final String SQL_INSERT_ITEM =
+        "INSERT INTO order_items (order_id, product_id, product_name, unit_price_cents, quantity) " +
+        "VALUES (?, ?, ?, ?, ?)";
+
+    private static final String SQL_UPDATE_STATUS =
+        "UPDATE orders SET status = ? WHERE id = ? AND status = ?";
+
+    private final DataSource dataSource;
+
+    public OrderDaoJdbc(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void insert(Connection conn, Order order) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERT_ORDER, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setLong(1, order.getUserId());
+            stmt.setLong(2, order.getTotalCents());
+            stmt.setString(3, order.getStatus());
+            stmt.setString(4, order.getCheckoutToken());
+            stmt.executeUpdate();
+
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException("No ID generated for order");
+                }
+                order.setId(keys.getLong(1));
+            }
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERT_ITEM)) {
+            for (OrderItem item : order.getItems()) {
+                stmt.setLong(1, order.getId());
+                stmt.setLong(2, item.getProductId());
+                stmt.setString(3, item.getProductName());
+                stmt.setInt(4, item.getUnitPriceCents());
+                stmt.setInt(5, item.getQuantity());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    @Override
+    public Order findByCheckoutToken(long userId, String checkoutToken) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_FIND_BY_CHECKOUT_TOKEN)) {
+
+            stmt.setLong(1, userId);
+            stmt.setString(2, checkoutToken);
+
+            Order order = null;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (order == null) {
+                        order = new Order(userId);
+                        order.setId(rs.getLong("id"));
+                        order.setStatus(rs.getString("status"));
+                        order.setCreatedAt(rs.getTimestamp("created_at"));
+                        order.setCheckoutToken(checkoutToken);
+                    }
+                    order.addItem(new OrderItem(rs.getLong("product_id"), rs.getString("product_name"),
+                                                rs.getInt("unit_price_cents"), rs.getInt("quantity")));
+                }
+            }
+            return order;
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding order of user " + userId + " by checkout token", e);
+            throw new RuntimeException("Failed to find order", e);
+        }
+    }
+
+    @Override
+    public boolean updateStatus(long orderId, String fromStatus, String toStatus) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE_STATUS)) {
+
+            stmt.setString(1, toStatus);
+            stmt.setLong(2, orderId);
+            stmt.setString(3, fromStatus);
+            return stmt.executeUpdate() == 1;
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error updating status of order " + orderId, e);
+            throw new RuntimeException("Failed to update order status", e);
+        }
+    }
+}
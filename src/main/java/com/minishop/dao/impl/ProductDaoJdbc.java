@@ -1,14 +1,19 @@
 package com.minishop.dao.impl;
 
-import com.minishop.config.DbConfig;
 import com.minishop.dao.ProductDao;
+import com.minishop.model.PageCursor;
 import com.minishop.model.Product;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -20,23 +25,43 @@ public class ProductDaoJdbc implements ProductDao {
 
     private static final Logger LOGGER = Logger.getLogger(ProductDaoJdbc.class.getName());
 
+    private static final String COLUMNS = "id, name, description, price_cents, stock, created_at";
+
     private static final String SQL_FIND_ALL =
-        "SELECT id, name, description, price_cents, stock FROM products ORDER BY created_at DESC";
+        "SELECT " + COLUMNS + " FROM products ORDER BY created_at DESC, id DESC";
 
     private static final String SQL_FIND_BY_ID =
-        "SELECT id, name, description, price_cents, stock FROM products WHERE id = ?";
+        "SELECT " + COLUMNS + " FROM products WHERE id = ?";
+
+    private static final String SQL_FIND_BY_IDS_PREFIX =
+        "SELECT " + COLUMNS + " FROM products WHERE id IN (";
+
+    // Larger id sets are split into chunks of this size
+    private static final int MAX_IN_PARAMS = 256;
+
+    // Keyset pagination, served by idx_products_created_id
+    private static final String SQL_FIND_FIRST_PAGE =
+        "SELECT " + COLUMNS + " FROM products ORDER BY created_at DESC, id DESC LIMIT ?";
+
+    private static final String SQL_FIND_PAGE_AFTER =
+        "SELECT " + COLUMNS + " FROM products WHERE (created_at, id) < (?, ?) " +
+        "ORDER BY created_at DESC, id DESC LIMIT ?";
+
+    private static final String SQL_FIND_PAGE_BEFORE =
+        "SELECT " + COLUMNS + " FROM products WHERE (created_at, id) > (?, ?) " +
+        "ORDER BY created_at ASC, id ASC LIMIT ?";
 
-    private final DbConfig dbConfig;
+    private final DataSource dataSource;
 
-    public ProductDaoJdbc() {
-        this.dbConfig = new DbConfig();
+    public ProductDaoJdbc(DataSource dataSource) {
+        this.dataSource = dataSource;
     }
 
     @Override
     public List<Product> findAll() {
         List<Product> products = new ArrayList<>();
 
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(SQL_FIND_ALL);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -45,7 +70,9 @@ public class ProductDaoJdbc implements ProductDao {
             }
 
         } catch (SQLException e) {
+            // Thrown, not an empty list: the cache and the search index must not keep an outage
             LOGGER.log(Level.SEVERE, "Error finding all products", e);
+            throw new RuntimeException("Failed to find products", e);
         }
 
         return products;
@@ -53,7 +80,7 @@ public class ProductDaoJdbc implements ProductDao {
 
     @Override
     public Product findById(long id) {
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(SQL_FIND_BY_ID)) {
 
             stmt.setLong(1, id);
@@ -70,6 +97,109 @@ public class ProductDaoJdbc implements ProductDao {
         return null;
     }
 
+    @Override
+    public List<Product> findByIds(Collection<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<Product> products = new ArrayList<>(distinct.size());
+        if (distinct.isEmpty()) {
+            return products;
+        }
+
+        try (Connection conn = dataSource.getConnection()) {
+            for (int from = 0; from < distinct.size(); from += MAX_IN_PARAMS) {
+                List<Long> chunk = distinct.subList(from, Math.min(from + MAX_IN_PARAMS, distinct.size()));
+
+                // Round the placeholder count up to a power of two so that only a
+                // handful of distinct SQL strings exist for the statement cache
+                int slots = Math.min(Integer.highestOneBit(chunk.size() * 2 - 1), MAX_IN_PARAMS);
+
+                try (PreparedStatement stmt = conn.prepareStatement(buildInQuery(slots))) {
+                    for (int i = 0; i < slots; i++) {
+                        // Pad with the last id; duplicates in IN () are harmless
+                        stmt.setLong(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            products.add(mapResultSetToProduct(rs));
+                        }
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding products by IDs: " + distinct, e);
+            throw new RuntimeException("Failed to find products by IDs", e);
+        }
+
+        return products;
+    }
+
+    private static String buildInQuery(int slots) {
+        StringBuilder sql = new StringBuilder(SQL_FIND_BY_IDS_PREFIX.length() + slots * 2 + 1);
+        sql.append(SQL_FIND_BY_IDS_PREFIX);
+        for (int i = 0; i < slots; i++) {
+            sql.append(i == 0 ? "?" : ",?");
+        }
+        return sql.append(')').toString();
+    }
+
+    @Override
+    public List<Product> findPageAfter(PageCursor after, int limit) {
+        List<Product> products = new ArrayList<>(limit);
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(after == null ? SQL_FIND_FIRST_PAGE : SQL_FIND_PAGE_AFTER)) {
+
+            if (after == null) {
+                stmt.setInt(1, limit);
+            } else {
+                stmt.setTimestamp(1, after.getCreatedAt());
+                stmt.setLong(2, after.getId());
+                stmt.setInt(3, limit);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    products.add(mapResultSetToProduct(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            // Thrown, not an empty page: pages are cached under their cursor
+            LOGGER.log(Level.SEVERE, "Error finding product page after: " + after, e);
+            throw new RuntimeException("Failed to find product page", e);
+        }
+
+        return products;
+    }
+
+    @Override
+    public List<Product> findPageBefore(PageCursor before, int limit) {
+        List<Product> products = new ArrayList<>(limit);
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_FIND_PAGE_BEFORE)) {
+
+            stmt.setTimestamp(1, before.getCreatedAt());
+            stmt.setLong(2, before.getId());
+            stmt.setInt(3, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    products.add(mapResultSetToProduct(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding product page before: " + before, e);
+            throw new RuntimeException("Failed to find product page", e);
+        }
+
+        // Scanned in ascending order; flip back to display order
+        Collections.reverse(products);
+        return products;
+    }
+
     private Product mapResultSetToProduct(ResultSet rs) throws SQLException {
         Product product = new Product();
         product.setId(rs.getLong("id"));
@@ -77,6 +207,7 @@ public class ProductDaoJdbc implements ProductDao {
         product.setDescription(rs.getString("description"));
         product.setPriceCents(rs.getInt("price_cents"));
         product.setStock(rs.getInt("stock"));
+        product.setCreatedAt(rs.getTimestamp("created_at"));
         return product;
     }
 
@@ -86,8 +217,8 @@ public class ProductDaoJdbc implements ProductDao {
     public void create(Product product) {
         String sql = "INSERT INTO products (name, description, price_cents, stock) VALUES (?, ?, ?, ?)";
 
-        try (Connection conn = dbConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setString(1, product.getName());
             stmt.setString(2, product.getDescription());
@@ -95,6 +226,11 @@ public class ProductDaoJdbc implements ProductDao {
             stmt.setInt(4, product.getStock());
 
             int rowsAffected = stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    product.setId(keys.getLong(1));
+                }
+            }
             LOGGER.info("Product created: " + product.getName() + " (rows: " + rowsAffected + ")");
 
         } catch (SQLException e) {
@@ -107,7 +243,7 @@ public class ProductDaoJdbc implements ProductDao {
     public void update(Product product) {
         String sql = "UPDATE products SET name = ?, description = ?, price_cents = ?, stock = ? WHERE id = ?";
 
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, product.getName());
@@ -129,7 +265,7 @@ public class ProductDaoJdbc implements ProductDao {
     public void delete(long id) {
         String sql = "DELETE FROM products WHERE id = ?";
 
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, id);
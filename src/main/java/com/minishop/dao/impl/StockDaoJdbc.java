@@ -0,0 +1,123 @@
+package com.minishop.dao.impl;
+
+import com.minishop.dao.StockDao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JDBC implementation of StockDao.
+ * Stock is only ever changed with conditional UPDATEs, never read-modify-write,
+ * so concurrent buyers cannot oversell.
+ */
+public class StockDaoJdbc implements StockDao {
+
+    private static final String SQL_DECREMENT_ONE =
+        "UPDATE products SET stock = stock - ? WHERE id = ? AND stock >= ?";
+
+    private static final String SQL_INCREMENT_ONE =
+        "UPDATE products SET stock = stock + ? WHERE id = ?";
+
+    @Override
+    public int decrementIfAvailable(Connection conn, Map<Long, Integer> quantities) throws SQLException {
+        if (quantities.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Integer> lines = new TreeMap<>(quantities);
+
+        if (lines.size() == 1) {
+            Map.Entry<Long, Integer> line = lines.entrySet().iterator().next();
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_DECREMENT_ONE)) {
+                stmt.setInt(1, line.getValue());
+                stmt.setLong(2, line.getKey());
+                stmt.setInt(3, line.getValue());
+                return stmt.executeUpdate();
+            }
+        }
+
+        // All lines in one statement: join against the requested quantities
+        String sql = "UPDATE products p JOIN (" + linesTable(lines.size()) + ") r ON p.id = r.id " +
+                     "SET p.stock = p.stock - r.qty WHERE p.stock >= r.qty";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            bindLines(stmt, lines);
+            return stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public void increment(Connection conn, Map<Long, Integer> quantities) throws SQLException {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> lines = new TreeMap<>(quantities);
+
+        if (lines.size() == 1) {
+            Map.Entry<Long, Integer> line = lines.entrySet().iterator().next();
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_INCREMENT_ONE)) {
+                stmt.setInt(1, line.getValue());
+                stmt.setLong(2, line.getKey());
+                stmt.executeUpdate();
+            }
+            return;
+        }
+
+        String sql = "UPDATE products p JOIN (" + linesTable(lines.size()) + ") r ON p.id = r.id " +
+                     "SET p.stock = p.stock + r.qty";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            bindLines(stmt, lines);
+            stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public Map<Long, Integer> findStock(Connection conn, Collection<Long> ids) throws SQLException {
+        Map<Long, Integer> stock = new HashMap<>();
+        if (ids.isEmpty()) {
+            return stock;
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT id, stock FROM products WHERE id IN (");
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(i == 0 ? "?" : ",?");
+        }
+        sql.append(')');
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (Long id : ids) {
+                stmt.setLong(index++, id);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    stock.put(rs.getLong("id"), rs.getInt("stock"));
+                }
+            }
+        }
+        return stock;
+    }
+
+    /**
+     * Derived table of (id, qty) rows: SELECT ? AS id, ? AS qty UNION ALL SELECT ?, ? ...
+     */
+    private static String linesTable(int count) {
+        StringBuilder sql = new StringBuilder("SELECT ? AS id, ? AS qty");
+        for (int i = 1; i < count; i++) {
+            sql.append(" UNION ALL SELECT ?, ?");
+        }
+        return sql.toString();
+    }
+
+    private static void bindLines(PreparedStatement stmt, Map<Long, Integer> lines) throws SQLException {
+        int index = 1;
+        for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+            stmt.setLong(index++, line.getKey());
+            stmt.setInt(index++, line.getValue());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.minishop.dao.impl;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks shared by user IDs, so that updates of one user's data
+ * are serialized without keeping a lock object per user.
+ * ReentrantLock rather than monitors: the holder may do I/O, which would pin
+ * a virtual thread.
+ */
+final class StripedLocks {
+
+    private final ReentrantLock[] locks;
+
+    StripedLocks(int stripes) {
+        locks = new ReentrantLock[Integer.highestOneBit(Math.max(1, stripes - 1)) << 1];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    ReentrantLock forId(long id) {
+        return locks[stripeOf(id)];
+    }
+
+    /**
+     * Index of the lock guarding id; the same on every node built with the
+     * same stripe count.
+     */
+    int stripeOf(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & (locks.length - 1);
+    }
+}
@@ -0,0 +1,90 @@
+package com.minishop.dao.impl;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs a unit of work in a single JDBC transaction on a pooled connection.
+ * Deadlocks and lock wait timeouts are retried with a short randomized backoff.
+ */
+public class TransactionTemplate {
+
+    private static final Logger LOGGER = Logger.getLogger(TransactionTemplate.class.getName());
+
+    // MySQL error codes for ER_LOCK_DEADLOCK and ER_LOCK_WAIT_TIMEOUT
+    private static final int MYSQL_DEADLOCK = 1213;
+    private static final int MYSQL_LOCK_WAIT_TIMEOUT = 1205;
+
+    private static final long BASE_BACKOFF_MS = 5;
+
+    private final DataSource dataSource;
+    private final int maxAttempts;
+
+    public TransactionTemplate(DataSource dataSource, int maxAttempts) {
+        this.dataSource = dataSource;
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    /**
+     * Work executed inside the transaction.
+     */
+    @FunctionalInterface
+    public interface TransactionCallback<T> {
+        T doInTransaction(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Execute the callback, committing on success and rolling back on any exception.
+     * The callback may run more than once if the transaction hits contention.
+     */
+    public <T> T execute(TransactionCallback<T> callback) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            try (Connection conn = dataSource.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    T result = callback.doInTransaction(conn);
+                    conn.commit();
+                    return result;
+                } catch (SQLException e) {
+                    rollbackQuietly(conn);
+                    if (attempt >= maxAttempts || !isRetryable(e)) {
+                        throw e;
+                    }
+                    LOGGER.log(Level.FINE, "Retrying transaction after contention (attempt " + attempt + ")", e);
+                } catch (RuntimeException e) {
+                    rollbackQuietly(conn);
+                    throw e;
+                }
+            }
+            backoff(attempt);
+        }
+    }
+
+    private static boolean isRetryable(SQLException e) {
+        return e instanceof SQLTransactionRollbackException
+            || e.getErrorCode() == MYSQL_DEADLOCK
+            || e.getErrorCode() == MYSQL_LOCK_WAIT_TIMEOUT;
+    }
+
+    private static void backoff(int attempt) {
+        long maxDelay = BASE_BACKOFF_MS << Math.min(attempt, 6);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, maxDelay + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void rollbackQuietly(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Rollback failed", e);
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package com.minishop.dao.impl;
 
-import com.minishop.config.DbConfig;
 import com.minishop.dao.UserDao;
 import com.minishop.model.User;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -19,17 +19,26 @@ public class UserDaoJdbc implements UserDao {
     private static final Logger LOGGER = Logger.getLogger(UserDaoJdbc.class.getName());
 
     private static final String SQL_FIND_BY_EMAIL =
-        "SELECT * FROM users WHERE email = ?";
+        "SELECT id, email, password_hash, full_name, role, token_version FROM users WHERE email = ?";
 
-    private final DbConfig dbConfig;
+    private static final String SQL_FIND_BY_ID =
+        "SELECT id, email, password_hash, full_name, role, token_version FROM users WHERE id = ?";
 
-    public UserDaoJdbc() {
-        this.dbConfig = new DbConfig();
+    private static final String SQL_UPDATE_PASSWORD_HASH =
+        "UPDATE users SET password_hash = ? WHERE id = ?";
+
+    private static final String SQL_INCREMENT_TOKEN_VERSION =
+        "UPDATE users SET token_version = token_version + 1 WHERE id = ?";
+
+    private final DataSource dataSource;
+
+    public UserDaoJdbc(DataSource dataSource) {
+        this.dataSource = dataSource;
     }
 
     @Override
     public User findByEmail(String email) {
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(SQL_FIND_BY_EMAIL)) {
 
             stmt.setString(1, email);
@@ -38,11 +47,61 @@ public class UserDaoJdbc implements UserDao {
             if (rs.next()) {
                 return mapResultSetToUser(rs);
             }
+            return null;
 
         } catch (SQLException e) {
+            // Thrown, not null: a database error must not be cached as "unknown email"
             LOGGER.log(Level.SEVERE, "Error finding user by email: " + email, e);
+            throw new RuntimeException("Failed to find user", e);
+        }
+    }
+
+    @Override
+    public User findById(long id) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_FIND_BY_ID)) {
+
+            stmt.setLong(1, id);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return mapResultSetToUser(rs);
+            }
+            return null;
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding user by ID: " + id, e);
+            throw new RuntimeException("Failed to find user", e);
+        }
+    }
+
+    @Override
+    public void updatePasswordHash(long id, String passwordHash) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE_PASSWORD_HASH)) {
+
+            stmt.setString(1, passwordHash);
+            stmt.setLong(2, id);
+            stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error updating password hash for user: " + id, e);
+            throw new RuntimeException("Failed to update password hash", e);
+        }
+    }
+
+    @Override
+    public void incrementTokenVersion(long id) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_INCREMENT_TOKEN_VERSION)) {
+
+            stmt.setLong(1, id);
+            stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error revoking tokens for user: " + id, e);
+            throw new RuntimeException("Failed to revoke tokens", e);
         }
-        return null;
     }
 
     private User mapResultSetToUser(ResultSet rs) throws SQLException {
@@ -52,6 +111,7 @@ public class UserDaoJdbc implements UserDao {
         user.setPasswordHash(rs.getString("password_hash"));
         user.setFullName(rs.getString("full_name"));
         user.setRole(rs.getString("role"));
+        user.setTokenVersion(rs.getInt("token_version"));
         return user;
     }
 }
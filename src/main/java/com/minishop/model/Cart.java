@@ -1,21 +1,57 @@
 package com.minishop.model;
 
-import java.io.Serializable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.*;
 
 /**
  * Shopping cart containing cart items
  * Stored in HTTP session
+ *
+ * Only product IDs, quantities and unit prices are kept, in parallel arrays,
+ * and serialized with a compact varint format. Products are attached as a
+ * transient view: after the session is deserialized, CartService resolves
+ * them again from the catalogue cache.
+ *
+ * The item count and total are running sums, kept up to date by every
+ * mutation, so the badge and the cart page read them in constant time.
  */
-public class Cart implements Serializable {
+public class Cart implements Externalizable {
 
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
 
-    private Map<Long, CartItem> items;
+    private static final byte FORMAT_VERSION = 1;
+
+    // Sanity bound when reading serialized data
+    private static final int MAX_LINES = 10_000;
+
+    private long[] productIds;
+    private int[] quantities;
+    private int[] unitPriceCents;
+    private int size;
+
+    // Running sums over the lines; rebuilt after deserialization
+    private int itemCount;
+    private long totalCents;
+
+    // Current products for the lines above; not serialized
+    private transient Map<Long, Product> products;
 
     // Constructor
     public Cart() {
-        this.items = new HashMap<>();
+        this.productIds = new long[4];
+        this.quantities = new int[4];
+        this.unitPriceCents = new int[4];
+        this.products = new HashMap<>();
     }
 
     // Business methods
@@ -39,23 +75,28 @@ public class Cart implements Serializable {
         }
 
         long productId = product.getId();
+        int index = indexOf(productId);
 
-        if (items.containsKey(productId)) {
+        if (index >= 0) {
             // Product already in cart - increase quantity
-            CartItem existingItem = items.get(productId);
-            int newQuantity = existingItem.getQuantity() + quantity;
+            int newQuantity = quantities[index] + quantity;
 
             // Check if new quantity exceeds stock
             if (newQuantity > product.getStock()) {
                 throw new IllegalArgumentException("Total quantity exceeds available stock");
             }
 
-            existingItem.setQuantity(newQuantity);
+            setLine(index, newQuantity, product.getPriceCents());
         } else {
-            // New product - create cart item
-            CartItem newItem = new CartItem(product, quantity);
-            items.put(productId, newItem);
+            // New product - append a line
+            ensureCapacity(size + 1);
+            productIds[size] = productId;
+            quantities[size] = 0;
+            unitPriceCents[size] = 0;
+            setLine(size, quantity, product.getPriceCents());
+            size++;
         }
+        products.put(productId, product);
     }
 
     /**
@@ -65,19 +106,20 @@ public class Cart implements Serializable {
      * @param quantity  the new quantity
      */
     public void updateQuantity(long productId, int quantity) {
-        if (!items.containsKey(productId)) {
+        int index = indexOf(productId);
+        if (index < 0) {
             throw new IllegalArgumentException("Product not found in cart");
         }
 
         if (quantity <= 0) {
             // Remove item if quantity is 0 or negative
-            removeProduct(productId);
+            removeAt(index);
         } else {
-            CartItem item = items.get(productId);
-            if (quantity > item.getProduct().getStock()) {
+            Product product = products.get(productId);
+            if (product != null && quantity > product.getStock()) {
                 throw new IllegalArgumentException("Quantity exceeds available stock");
             }
-            item.setQuantity(quantity);
+            setLine(index, quantity, unitPriceCents[index]);
         }
     }
 
@@ -87,7 +129,10 @@ public class Cart implements Serializable {
      * @param productId the product ID to remove
      */
     public void removeProduct(long productId) {
-        items.remove(productId);
+        int index = indexOf(productId);
+        if (index >= 0) {
+            removeAt(index);
+        }
     }
 
     /**
@@ -97,16 +142,22 @@ public class Cart implements Serializable {
      * @return the cart item, or null if not found
      */
     public CartItem getItem(long productId) {
-        return items.get(productId);
+        int index = indexOf(productId);
+        return index < 0 ? null : itemAt(index);
     }
 
     /**
-     * Get all cart items
+     * Get all cart items, in the order they were added
+     * Items are views built on each call; changing them does not change the cart
      *
-     * @return collection of cart items
+     * @return list of cart items
      */
-    public Collection<CartItem> getItems() {
-        return items.values();
+    public List<CartItem> getItems() {
+        List<CartItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(itemAt(i));
+        }
+        return items;
     }
 
     /**
@@ -115,7 +166,7 @@ public class Cart implements Serializable {
      * @return list of cart items
      */
     public List<CartItem> getItemsList() {
-        List<CartItem> itemsList = new ArrayList<>(items.values());
+        List<CartItem> itemsList = getItems();
         itemsList.sort(Comparator.comparing(item -> item.getProduct().getName()));
         return itemsList;
     }
@@ -126,9 +177,7 @@ public class Cart implements Serializable {
      * @return total item count
      */
     public int getItemCount() {
-        return items.values().stream()
-                .mapToInt(CartItem::getQuantity)
-                .sum();
+        return itemCount;
     }
 
     /**
@@ -137,7 +186,7 @@ public class Cart implements Serializable {
      * @return number of unique products
      */
     public int getProductCount() {
-        return items.size();
+        return size;
     }
 
     /**
@@ -145,10 +194,8 @@ public class Cart implements Serializable {
      *
      * @return total price in cents
      */
-    public int getTotalCents() {
-        return items.values().stream()
-                .mapToInt(CartItem::getTotalCents)
-                .sum();
+    public long getTotalCents() {
+        return totalCents;
     }
 
     /**
@@ -175,14 +222,17 @@ public class Cart implements Serializable {
      * @return true if cart has no items
      */
     public boolean isEmpty() {
-        return items.isEmpty();
+        return size == 0;
     }
 
     /**
      * Clear all items from cart
      */
     public void clear() {
-        items.clear();
+        size = 0;
+        itemCount = 0;
+        totalCents = 0;
+        products.clear();
     }
 
     /**
@@ -192,48 +242,243 @@ public class Cart implements Serializable {
      * @return true if product is in cart
      */
     public boolean containsProduct(long productId) {
-        return items.containsKey(productId);
+        return indexOf(productId) >= 0;
+    }
+
+    /**
+     * Get the IDs of all products in the cart
+     *
+     * @return copy of the product IDs
+     */
+    public Set<Long> getProductIds() {
+        Set<Long> ids = new LinkedHashSet<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            ids.add(productIds[i]);
+        }
+        return ids;
+    }
+
+    /**
+     * Whether some lines have no product attached (e.g. after the session was deserialized)
+     *
+     * @return true if the products must be resolved before rendering
+     */
+    public boolean hasUnresolvedProducts() {
+        for (int i = 0; i < size; i++) {
+            if (!products.containsKey(productIds[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Attach the current version of each line's product, updating unit prices
+     * Lines whose product no longer exists are removed
+     *
+     * @param current current products keyed by ID
+     * @return list of messages about removed items
+     */
+    public List<String> refreshProducts(Map<Long, Product> current) {
+        List<String> messages = new ArrayList<>();
+
+        for (int i = size - 1; i >= 0; i--) {
+            long productId = productIds[i];
+            Product fresh = current.get(productId);
+            if (fresh == null) {
+                Product known = products.get(productId);
+                String name = known != null ? known.getName() : "Le produit n°" + productId;
+                messages.add(name + " n'est plus disponible et a été retiré du panier");
+                removeAt(i);
+            } else {
+                products.put(productId, fresh);
+                setLine(i, quantities[i], fresh.getPriceCents());
+            }
+        }
+
+        Collections.reverse(messages);
+        return messages;
     }
 
     /**
      * Validate all cart items against current stock
      * Removes items that are out of stock or adjusts quantities that exceed stock
+     * Uses the attached products; call refreshProducts first
      *
      * @return list of messages about adjustments made
      */
     public List<String> validateStock() {
         List<String> messages = new ArrayList<>();
-        List<Long> toRemove = new ArrayList<>();
 
-        for (Map.Entry<Long, CartItem> entry : items.entrySet()) {
-            CartItem item = entry.getValue();
-            Product product = item.getProduct();
+        for (int i = 0; i < size; i++) {
+            Product product = products.get(productIds[i]);
+            if (product == null) {
+                continue;
+            }
 
             if (product.getStock() == 0) {
                 // Product no longer available
-                toRemove.add(entry.getKey());
                 messages.add(product.getName() + " n'est plus disponible et a été retiré du panier");
-            } else if (item.getQuantity() > product.getStock()) {
+                removeAt(i);
+                i--;
+            } else if (quantities[i] > product.getStock()) {
                 // Quantity exceeds stock - adjust
-                int oldQuantity = item.getQuantity();
-                item.setQuantity(product.getStock());
+                int oldQuantity = quantities[i];
+                setLine(i, product.getStock(), unitPriceCents[i]);
                 messages.add(product.getName() + " : quantité réduite de " + oldQuantity +
                            " à " + product.getStock() + " (stock disponible)");
             }
         }
 
-        // Remove unavailable items
-        for (Long productId : toRemove) {
-            items.remove(productId);
+        return messages;
+    }
+
+    private int indexOf(long productId) {
+        // Carts hold a handful of lines: a linear scan beats hashing
+        for (int i = 0; i < size; i++) {
+            if (productIds[i] == productId) {
+                return i;
+            }
         }
+        return -1;
+    }
 
-        return messages;
+    /**
+     * Change a line's quantity and unit price, keeping the running sums in step
+     */
+    private void setLine(int index, int quantity, int priceCents) {
+        itemCount += quantity - quantities[index];
+        totalCents += (long) priceCents * quantity - (long) unitPriceCents[index] * quantities[index];
+        quantities[index] = quantity;
+        unitPriceCents[index] = priceCents;
+    }
+
+    private CartItem itemAt(int index) {
+        Product product = products.get(productIds[index]);
+        if (product == null) {
+            // Not resolved (catalogue unreachable): show what the cart itself knows
+            product = new Product(productIds[index], "Produit n°" + productIds[index], null,
+                                  unitPriceCents[index], 0);
+        }
+        return new CartItem(product, quantities[index]);
+    }
+
+    private void removeAt(int index) {
+        setLine(index, 0, 0);
+        products.remove(productIds[index]);
+        int moved = size - index - 1;
+        System.arraycopy(productIds, index + 1, productIds, index, moved);
+        System.arraycopy(quantities, index + 1, quantities, index, moved);
+        System.arraycopy(unitPriceCents, index + 1, unitPriceCents, index, moved);
+        size--;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > productIds.length) {
+            int newLength = Math.max(capacity, productIds.length * 2);
+            productIds = Arrays.copyOf(productIds, newLength);
+            quantities = Arrays.copyOf(quantities, newLength);
+            unitPriceCents = Arrays.copyOf(unitPriceCents, newLength);
+        }
+    }
+
+    // Serialization: version, line count, then (id, quantity, unit price) per line as varints.
+    // The same bytes back the session form and the CartStore implementations.
+
+    /**
+     * Encode the cart lines in the compact binary format
+     *
+     * @return the encoded cart
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8 + size * 8);
+        try {
+            writeTo(new DataOutputStream(bytes));
+        } catch (IOException e) {
+            // Not thrown by an in-memory stream
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode a cart written by {@link #toBytes()}; products are left unresolved
+     *
+     * @param data the encoded cart
+     * @return the decoded cart
+     * @throws IOException if the data is truncated or malformed
+     */
+    public static Cart fromBytes(byte[] data) throws IOException {
+        Cart cart = new Cart();
+        cart.readFrom(new DataInputStream(new ByteArrayInputStream(data)));
+        return cart;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        writeTo(out);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        readFrom(in);
+    }
+
+    private void writeTo(DataOutput out) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        writeVarLong(out, size);
+        for (int i = 0; i < size; i++) {
+            writeVarLong(out, productIds[i]);
+            writeVarLong(out, quantities[i]);
+            writeVarLong(out, unitPriceCents[i]);
+        }
+    }
+
+    private void readFrom(DataInput in) throws IOException {
+        byte version = in.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new InvalidObjectException("Unsupported cart format version " + version);
+        }
+        int count = (int) readVarLong(in);
+        if (count < 0 || count > MAX_LINES) {
+            throw new InvalidObjectException("Invalid cart size " + count);
+        }
+        ensureCapacity(count);
+        itemCount = 0;
+        totalCents = 0;
+        for (int i = 0; i < count; i++) {
+            productIds[i] = readVarLong(in);
+            quantities[i] = 0;
+            unitPriceCents[i] = 0;
+            setLine(i, (int) readVarLong(in), (int) readVarLong(in));
+        }
+        size = count;
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new InvalidObjectException("Malformed varint in cart data");
     }
 
     @Override
     public String toString() {
         return "Cart{" +
-                "items=" + items.size() +
+                "items=" + size +
                 ", totalItems=" + getItemCount() +
                 ", total=" + getFormattedTotal() +
                 '}';
@@ -5,6 +5,7 @@ import java.util.Objects;
 
 /**
  * Cart item representing a product in the shopping cart
+ * Built on demand by Cart as a view of one line
  */
 public class CartItem implements Serializable {
 
@@ -47,8 +48,8 @@ public class CartItem implements Serializable {
     /**
      * Get total price in cents for this cart item (price * quantity)
      */
-    public int getTotalCents() {
-        return product.getPriceCents() * quantity;
+    public long getTotalCents() {
+        return (long) product.getPriceCents() * quantity;
     }
 
     /**
@@ -0,0 +1,80 @@
+package com.minishop.model;
+
+import java.sql.Timestamp;
+
+/**
+ * Unit of background work persisted in the jobs table.
+ */
+public class Job {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_DONE = "DONE";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private long id;
+    private String type;
+    private String payload;
+    private int attempts;
+    private Timestamp createdAt;
+
+    public Job() {
+    }
+
+    public Job(long id, String type, String payload, int attempts, Timestamp createdAt) {
+        this.id = id;
+        this.type = type;
+        this.payload = payload;
+        this.attempts = attempts;
+        this.createdAt = createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Timestamp createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Job{" +
+                "id=" + id +
+                ", type='" + type + '\'' +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
@@ -0,0 +1,108 @@
+package com.minishop.model;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Order placed at checkout.
+ */
+public class Order implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_CONFIRMED = "CONFIRMED";
+    public static final String STATUS_CANCELLED = "CANCELLED";
+
+    private long id;
+    private long userId;
+    private String status = STATUS_PENDING;
+    // One-time token of the checkout form that placed the order
+    private String checkoutToken;
+    private Timestamp createdAt;
+    private List<OrderItem> items = new ArrayList<>();
+
+    public Order() {
+    }
+
+    public Order(long userId) {
+        this.userId = userId;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(long userId) {
+        this.userId = userId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getCheckoutToken() {
+        return checkoutToken;
+    }
+
+    public void setCheckoutToken(String checkoutToken) {
+        this.checkoutToken = checkoutToken;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Timestamp createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public List<OrderItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<OrderItem> items) {
+        this.items = items;
+    }
+
+    public void addItem(OrderItem item) {
+        items.add(item);
+    }
+
+    public long getTotalCents() {
+        long total = 0;
+        for (OrderItem item : items) {
+            total += item.getTotalCents();
+        }
+        return total;
+    }
+
+    public String getFormattedTotal() {
+        return String.format("%.2f €", getTotalCents() / 100.0);
+    }
+
+    @Override
+    public String toString() {
+        return "Order{" +
+                "id=" + id +
+                ", userId=" + userId +
+                ", status='" + status + '\'' +
+                ", items=" + items.size() +
+                ", totalCents=" + getTotalCents() +
+                '}';
+    }
+}
@@ -0,0 +1,71 @@
+package com.minishop.model;
+
+import java.io.Serializable;
+
+/**
+ * Order line: product, price and quantity frozen at checkout time.
+ */
+public class OrderItem implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long productId;
+    private String productName;
+    private int unitPriceCents;
+    private int quantity;
+
+    public OrderItem() {
+    }
+
+    public OrderItem(long productId, String productName, int unitPriceCents, int quantity) {
+        this.productId = productId;
+        this.productName = productName;
+        this.unitPriceCents = unitPriceCents;
+        this.quantity = quantity;
+    }
+
+    public long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(long productId) {
+        this.productId = productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public int getUnitPriceCents() {
+        return unitPriceCents;
+    }
+
+    public void setUnitPriceCents(int unitPriceCents) {
+        this.unitPriceCents = unitPriceCents;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public long getTotalCents() {
+        return (long) unitPriceCents * quantity;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderItem{" +
+                "productId=" + productId +
+                ", quantity=" + quantity +
+                ", unitPriceCents=" + unitPriceCents +
+                '}';
+    }
+}
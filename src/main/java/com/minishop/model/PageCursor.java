@@ -0,0 +1,61 @@
+package com.minishop.model;
+
+import java.sql.Timestamp;
+
+/**
+ * Keyset pagination cursor: position of a product in (created_at, id) order.
+ * Encoded as "millis_id" so it can travel in a query string.
+ */
+public final class PageCursor {
+
+    private final long createdAtMillis;
+    private final long id;
+
+    public PageCursor(long createdAtMillis, long id) {
+        this.createdAtMillis = createdAtMillis;
+        this.id = id;
+    }
+
+    public static PageCursor of(Product product) {
+        Timestamp createdAt = product.getCreatedAt();
+        return new PageCursor(createdAt != null ? createdAt.getTime() : 0L, product.getId());
+    }
+
+    /**
+     * Parse an encoded cursor.
+     *
+     * @return the cursor, or null if the value is missing or malformed
+     */
+    public static PageCursor decode(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        int sep = value.indexOf('_');
+        if (sep <= 0 || sep == value.length() - 1) {
+            return null;
+        }
+        try {
+            return new PageCursor(Long.parseLong(value.substring(0, sep)),
+                                  Long.parseLong(value.substring(sep + 1)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public String encode() {
+        return createdAtMillis + "_" + id;
+    }
+
+    public Timestamp getCreatedAt() {
+        return new Timestamp(createdAtMillis);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
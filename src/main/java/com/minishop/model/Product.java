@@ -1,6 +1,7 @@
 package com.minishop.model;
 
 import java.io.Serializable;
+import java.sql.Timestamp;
 import java.util.Objects;
 
 /**
@@ -15,6 +16,7 @@ public class Product implements Serializable {
     private String description;
     private int priceCents;
     private int stock;
+    private Timestamp createdAt;
 
     public Product() {
     }
@@ -71,6 +73,14 @@ public class Product implements Serializable {
         this.stock = stock;
     }
 
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Timestamp createdAt) {
+        this.createdAt = createdAt;
+    }
+
     public String getFormattedPrice() {
         return String.format("%.2f €", priceCents / 100.0);
     }
@@ -0,0 +1,42 @@
+package com.minishop.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of the catalogue with the cursors to reach its neighbours.
+ */
+public class ProductPage {
+
+    private final List<Product> products;
+    private final String nextCursor;
+    private final String prevCursor;
+
+    public ProductPage(List<Product> products, String nextCursor, String prevCursor) {
+        this.products = Collections.unmodifiableList(products);
+        this.nextCursor = nextCursor;
+        this.prevCursor = prevCursor;
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    /**
+     * Cursor for the following page, or null on the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Cursor for the preceding page, or null on the first page.
+     */
+    public String getPrevCursor() {
+        return prevCursor;
+    }
+
+    public int getSize() {
+        return products.size();
+    }
+}
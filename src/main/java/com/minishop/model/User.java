@@ -15,6 +15,8 @@ public class User implements Serializable {
     private String passwordHash;
     private String fullName;
     private String role;
+    // Bumped on logout and on role or password changes; remember-me tokens carry the value they were issued with
+    private int tokenVersion;
 
     public User() {
     }
@@ -66,6 +68,14 @@ public class User implements Serializable {
         this.role = role;
     }
 
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
     public boolean isAdmin() {
         return "ADMIN".equalsIgnoreCase(role);
     }
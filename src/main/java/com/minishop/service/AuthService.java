@@ -1,38 +1,73 @@
 package com.minishop.service;
 
+import com.minishop.config.AppConstants;
+import com.minishop.config.AppContext;
 import com.minishop.dao.UserDao;
-import com.minishop.dao.impl.UserDaoJdbc;
 import com.minishop.model.User;
+import com.minishop.util.CacheStats;
+import com.minishop.util.LatencyHistogram;
 import com.minishop.util.PasswordUtil;
 
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Authentication service.
+ * Password hashes are deliberately slow, so verification runs on a small
+ * bounded pool (see ExecutorConfig): a burst of logins queues there, or is
+ * turned away, instead of taking every CPU from catalogue requests.
+ * Users are looked up through a UserCache, which also remembers unknown
+ * emails, so repeated or abusive attempts do not reach MySQL.
+ * An unknown email is still checked against a dummy PBKDF2 hash, so the
+ * response time does not tell whether an account exists. Accounts still on
+ * the legacy SHA-256 format answer faster until their first login rehashes them.
  */
 public class AuthService {
 
     private static final Logger LOGGER = Logger.getLogger(AuthService.class.getName());
-    private static AuthService instance;
-
     private final UserDao userDao;
+    private final UserCache userCache;
+    private final ThreadPoolExecutor verifier;
+    // Checked when the email is unknown
+    private final String dummyHash;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rehashed = new LongAdder();
+    private final LatencyHistogram verifyWait = new LatencyHistogram();
+    private final LatencyHistogram verifyTime = new LatencyHistogram();
 
-    private AuthService() {
-        this.userDao = new UserDaoJdbc();
+    /**
+     * @param dummyHash a hash in the current format of a password nobody knows,
+     *                  built at deploy so that no login pays for it
+     */
+    public AuthService(UserDao userDao, UserCache userCache, ThreadPoolExecutor verifier, String dummyHash) {
+        this.userDao = userDao;
+        this.userCache = userCache;
+        this.verifier = verifier;
+        this.dummyHash = dummyHash;
     }
 
-    public static synchronized AuthService getInstance() {
-        if (instance == null) {
-            instance = new AuthService();
-        }
-        return instance;
+    /**
+     * Get the instance built at deploy time (see AppContext)
+     */
+    public static AuthService getInstance() {
+        return AppContext.get().getAuthService();
     }
 
     /**
      * Authenticate a user with email and password.
+     * A password stored in an outdated format is rehashed on success.
      *
      * @return the authenticated User or null if invalid.
+     * @throws LoginBusyException if the verification pool is saturated
      */
     public User login(String email, String passwordPlain) {
         if (email == null || email.trim().isEmpty() || passwordPlain == null || passwordPlain.isEmpty()) {
@@ -40,20 +75,167 @@ public class AuthService {
         }
 
         try {
-            User user = userDao.findByEmail(email.trim().toLowerCase());
+            String key = email.trim().toLowerCase(Locale.ROOT);
+            User user = userCache.get(key, userDao::findByEmail);
             if (user == null) {
+                // Same cost as a real check, on the same pool
+                verify(passwordPlain, dummyHash);
                 return null;
             }
 
-            String hashed = PasswordUtil.sha256(passwordPlain);
-            if (!hashed.equals(user.getPasswordHash())) {
+            Verification result = verify(passwordPlain, user.getPasswordHash());
+            if (!result.valid) {
                 return null;
             }
 
+            if (result.newHash != null) {
+                return upgradeHash(key, user, result.newHash);
+            }
             return user;
+        } catch (LoginBusyException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            // Not a wrong password: the request is being cancelled
+            Thread.currentThread().interrupt();
+            throw new LoginBusyException("Interrupted during password verification");
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error during authentication for: " + email, e);
             return null;
         }
     }
+
+    /**
+     * Run the hash check (and the rehash, if due) on the verification pool and wait for it.
+     */
+    private Verification verify(String password, String storedHash) throws InterruptedException, ExecutionException {
+        long submitted = System.nanoTime();
+        Future<Verification> future;
+        try {
+            future = verifier.submit(() -> {
+                verifyWait.recordSinceNanos(submitted);
+                long start = System.nanoTime();
+                try {
+                    boolean valid = PasswordUtil.verify(password, storedHash);
+                    String newHash = valid && PasswordUtil.needsRehash(storedHash) ? PasswordUtil.hash(password) : null;
+                    return new Verification(valid, newHash);
+                } finally {
+                    verifyTime.recordSinceNanos(start);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            LOGGER.warning("Password verification pool saturated, login rejected");
+            throw new LoginBusyException("Too many logins in progress");
+        }
+
+        try {
+            return future.get(AppConstants.PASSWORD_VERIFY_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            LOGGER.warning("Password verification timed out");
+            throw new LoginBusyException("Password verification timed out");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * @return the user as now stored: the database bumps the token version with the hash
+     */
+    private User upgradeHash(String email, User user, String newHash) {
+        // Best effort: the login succeeds either way and the next one retries
+        try {
+            userDao.updatePasswordHash(user.getId(), newHash);
+            userCache.invalidate(email);
+            rehashed.increment();
+            LOGGER.info("Password hash upgraded for user #" + user.getId());
+            User stored = userDao.findById(user.getId());
+            return stored != null ? stored : user;
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not upgrade password hash for user #" + user.getId(), e);
+            return user;
+        }
+    }
+
+    /**
+     * Current state of a user, for checking a remember-me token on each request.
+     * Cached briefly (USER_CACHE_TOKEN_TTL_MS).
+     *
+     * @return the user, or null if the account no longer exists
+     */
+    public User findUser(long id) {
+        return userCache.getById(id, userDao::findById);
+    }
+
+    /**
+     * Current state of a user, read from the database, for decisions that
+     * must not lag behind a demotion (admin access).
+     *
+     * @return the user, or null if the account no longer exists
+     */
+    public User loadUser(long id) {
+        return userDao.findById(id);
+    }
+
+    /**
+     * Revoke every remember-me token of a user (logout).
+     */
+    public void revokeTokens(long userId) {
+        userDao.incrementTokenVersion(userId);
+        userCache.invalidate(userId);
+    }
+
+    public CacheStats getUserCacheStats() {
+        return userCache.getStats();
+    }
+
+    /**
+     * Login attempts for unknown emails answered from memory.
+     */
+    public long getUnknownEmailHits() {
+        return userCache.getNegativeHits();
+    }
+
+    public int getVerifyQueueDepth() {
+        return verifier.getQueue().size();
+    }
+
+    public int getVerifyActiveCount() {
+        return verifier.getActiveCount();
+    }
+
+    public long getVerifyRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getRehashedCount() {
+        return rehashed.sum();
+    }
+
+    /**
+     * Time a login waited for a verification thread, in microseconds.
+     */
+    public LatencyHistogram getVerifyWait() {
+        return verifyWait;
+    }
+
+    /**
+     * Hash verification time, in microseconds.
+     */
+    public LatencyHistogram getVerifyTime() {
+        return verifyTime;
+    }
+
+    private static final class Verification {
+        final boolean valid;
+        // Set when the stored hash should be replaced
+        final String newHash;
+
+        Verification(boolean valid, String newHash) {
+            this.valid = valid;
+            this.newHash = newHash;
+        }
+    }
 }
@@ -1,40 +1,52 @@
 package com.minishop.service;
 
 import com.minishop.config.AppConstants;
+import com.minishop.config.AppContext;
+import com.minishop.dao.CartStore;
 import com.minishop.model.Cart;
 import com.minishop.model.Product;
+import com.minishop.model.User;
+import com.minishop.util.Log;
 import jakarta.servlet.http.HttpSession;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.Logger;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
 
 /**
  * Cart service
- * Handles shopping cart operations in session
+ * Handles shopping cart operations. The cart of a logged-in user lives in
+ * the CartStore, so it does not depend on which node holds the session;
+ * the session only keeps the item count for the navigation badge.
+ * Every change goes through CartStore.update, so concurrent requests of the
+ * same user (two tabs, the async merge) apply one after the other.
  */
 public class CartService {
 
-    private static final Logger LOGGER = Logger.getLogger(CartService.class.getName());
-    private static CartService instance;
+    private static final Log LOGGER = Log.get(CartService.class);
 
     private final ProductService productService;
+    private final CartStore cartStore;
 
-    private CartService() {
-        this.productService = ProductService.getInstance();
+    public CartService(ProductService productService, CartStore cartStore) {
+        this.productService = productService;
+        this.cartStore = cartStore;
     }
 
     /**
-     * Get singleton instance of CartService
+     * Get singleton instance of CartService, built at deploy time (see AppContext)
      */
-    public static synchronized CartService getInstance() {
-        if (instance == null) {
-            instance = new CartService();
-        }
-        return instance;
+    public static CartService getInstance() {
+        return AppContext.get().getCartService();
     }
 
     /**
-     * Get cart from session, or create new one if it doesn't exist
+     * Get the user's cart, or create new one if it doesn't exist
+     * Loaded from the cart store for a logged-in user, from the session otherwise;
+     * products are resolved again from the catalogue cache
      *
      * @param session the HTTP session
      * @return the cart
@@ -44,11 +56,16 @@ public class CartService {
             throw new IllegalArgumentException("Session cannot be null");
         }
 
-        Cart cart = (Cart) session.getAttribute(AppConstants.CART);
+        Long userId = ownerId(session);
+        Cart cart = userId != null ? cartStore.load(userId) : (Cart) session.getAttribute(AppConstants.CART);
         if (cart == null) {
             cart = new Cart();
-            session.setAttribute(AppConstants.CART, cart);
-            LOGGER.info("Created new cart in session");
+            if (userId == null) {
+                session.setAttribute(AppConstants.CART, cart);
+            }
+            LOGGER.fine("Created new cart");
+        } else if (cart.hasUnresolvedProducts()) {
+            resolveProducts(cart);
         }
 
         // Update cart count in session
@@ -73,34 +90,100 @@ public class CartService {
         }
 
         if (quantity <= 0) {
-            LOGGER.warning("Cannot add to cart: invalid quantity " + quantity);
+            LOGGER.warning("Cannot add to cart: invalid quantity {0}", quantity);
             throw new IllegalArgumentException("Invalid quantity");
         }
 
         // Get product
         Product product = productService.getProductById(productId);
         if (product == null) {
-            LOGGER.warning("Cannot add to cart: product not found " + productId);
+            LOGGER.warning("Cannot add to cart: product not found {0,number,#}", productId);
             throw new IllegalArgumentException("Product not found");
         }
 
         // Check stock
         if (quantity > product.getStock()) {
-            LOGGER.warning("Cannot add to cart: insufficient stock for product " + productId +
-                         " (requested: " + quantity + ", available: " + product.getStock() + ")");
+            LOGGER.warning("Cannot add to cart: insufficient stock for product {0,number,#} (requested: {1}, available: {2})",
+                           productId, quantity, product.getStock());
             throw new IllegalArgumentException("Insufficient stock");
         }
 
-        // Get or create cart
-        Cart cart = getOrCreateCart(session);
+        // Add product to the current cart and write it back
+        modifyCart(session, cart -> cart.addProduct(product, quantity));
 
-        // Add product to cart
-        cart.addProduct(product, quantity);
+        LOGGER.info("Added to cart: {0} x{1}", product.getName(), quantity);
+    }
 
-        // Update cart count in session
-        updateCartCount(session, cart);
+    /**
+     * Add several products to the cart at once
+     * Stock is validated against a single batched product lookup;
+     * invalid lines (unknown product, bad quantity, insufficient stock) are skipped
+     *
+     * @param session    the HTTP session
+     * @param quantities quantity to add, keyed by product ID
+     * @return number of lines added
+     */
+    public int addAll(HttpSession session, Map<Long, Integer> quantities) {
+        if (session == null) {
+            LOGGER.warning("Cannot add to cart: session is null");
+            throw new IllegalArgumentException("Session required");
+        }
+
+        if (quantities.isEmpty()) {
+            return 0;
+        }
+
+        // One lookup for every line instead of one query per product
+        return addAll(session, quantities, productService.getProductsByIds(quantities.keySet()));
+    }
+
+    /**
+     * Add several products to the cart using products the caller already loaded
+     * Lets the lookup run apart from the session update (see CartMergeServlet)
+     *
+     * @param session    the HTTP session
+     * @param quantities quantity to add, keyed by product ID
+     * @param products   the products for those IDs; missing ones are skipped
+     * @return number of lines added
+     */
+    public int addAll(HttpSession session, Map<Long, Integer> quantities, Map<Long, Product> products) {
+        if (session == null) {
+            LOGGER.warning("Cannot add to cart: session is null");
+            throw new IllegalArgumentException("Session required");
+        }
 
-        LOGGER.info("Added to cart: " + product.getName() + " x" + quantity);
+        int[] added = new int[1];
+        modifyCart(session, cart -> added[0] = addLines(cart, quantities, products));
+
+        LOGGER.info("Added {0}/{1} lines to cart", added[0], quantities.size());
+        return added[0];
+    }
+
+    private static int addLines(Cart cart, Map<Long, Integer> quantities, Map<Long, Product> products) {
+        int added = 0;
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            long productId = line.getKey();
+            int quantity = line.getValue();
+
+            if (quantity <= 0) {
+                LOGGER.warning("Skipping cart line: invalid quantity {0} for product {1,number,#}", quantity, productId);
+                continue;
+            }
+
+            Product product = products.get(productId);
+            if (product == null) {
+                LOGGER.warning("Skipping cart line: product not found {0,number,#}", productId);
+                continue;
+            }
+
+            try {
+                cart.addProduct(product, quantity);
+                added++;
+            } catch (IllegalArgumentException e) {
+                LOGGER.warning("Skipping cart line for product {0,number,#}: {1}", productId, e.getMessage());
+            }
+        }
+        return added;
     }
 
     /**
@@ -116,20 +199,15 @@ public class CartService {
             throw new IllegalArgumentException("Session required");
         }
 
-        Cart cart = getOrCreateCart(session);
-
         if (quantity <= 0) {
             // Remove item if quantity is 0 or negative
             removeFromCart(session, productId);
             return;
         }
 
-        cart.updateQuantity(productId, quantity);
+        modifyCart(session, cart -> cart.updateQuantity(productId, quantity));
 
-        // Update cart count in session
-        updateCartCount(session, cart);
-
-        LOGGER.info("Updated cart quantity for product " + productId + ": " + quantity);
+        LOGGER.info("Updated cart quantity for product {0,number,#}: {1}", productId, quantity);
     }
 
     /**
@@ -144,13 +222,9 @@ public class CartService {
             throw new IllegalArgumentException("Session required");
         }
 
-        Cart cart = getOrCreateCart(session);
-        cart.removeProduct(productId);
-
-        // Update cart count in session
-        updateCartCount(session, cart);
+        modifyCart(session, cart -> cart.removeProduct(productId));
 
-        LOGGER.info("Removed from cart: product " + productId);
+        LOGGER.info("Removed from cart: product {0,number,#}", productId);
     }
 
     /**
@@ -163,18 +237,16 @@ public class CartService {
             return;
         }
 
-        Cart cart = getOrCreateCart(session);
-        cart.clear();
-
-        // Update cart count in session
-        updateCartCount(session, cart);
+        modifyCart(session, Cart::clear);
 
         LOGGER.info("Cart cleared");
     }
 
     /**
      * Validate cart items against current stock
-     * Removes out-of-stock items and adjusts quantities if needed
+     * Refreshes price and stock of every line with one batched lookup
+     * (served from the product cache when possible), then removes
+     * out-of-stock items and adjusts quantities if needed
      *
      * @param session the HTTP session
      * @return list of messages about adjustments made
@@ -184,19 +256,103 @@ public class CartService {
             return List.of();
         }
 
-        Cart cart = getOrCreateCart(session);
-        List<String> messages = cart.validateStock();
+        List<String> messages = new ArrayList<>();
+        modifyCart(session, cart -> messages.addAll(validate(cart)));
+        return messages;
+    }
 
-        // Update cart count in session
-        updateCartCount(session, cart);
+    /**
+     * Validate a cart the caller holds (see withCart), as validateCart does
+     *
+     * @param cart the cart to refresh and adjust
+     * @return list of messages about adjustments made
+     */
+    List<String> validate(Cart cart) {
+        List<String> messages = new ArrayList<>();
+        if (!cart.isEmpty()) {
+            try {
+                messages.addAll(cart.refreshProducts(productService.getProductsByIds(cart.getProductIds())));
+            } catch (RuntimeException e) {
+                // Keep the snapshots rather than emptying the cart on a database error
+                LOGGER.log(Level.WARNING, "Could not refresh cart products, validating against snapshots", e);
+            }
+        }
+        messages.addAll(cart.validateStock());
 
         if (!messages.isEmpty()) {
-            LOGGER.info("Cart validated with " + messages.size() + " adjustments");
+            LOGGER.info("Cart validated with {0} adjustments", messages.size());
         }
-
         return messages;
     }
 
+    /**
+     * Run a step on the current cart while no other request of the same
+     * logged-in user can change it (see CartStore.update), then write back
+     * whatever the step left in the cart
+     * If the step throws, the stored cart is left as it was
+     *
+     * @param session the HTTP session
+     * @param step    receives the cart, products resolved when possible
+     * @return the step's result
+     */
+    public <T> T withCart(HttpSession session, Function<Cart, T> step) {
+        if (session == null) {
+            throw new IllegalArgumentException("Session required");
+        }
+
+        List<T> result = new ArrayList<>(1);
+        modifyCart(session, cart -> result.add(step.apply(cart)));
+        return result.get(0);
+    }
+
+    /**
+     * Attach current products to a cart that only holds IDs and quantities
+     *
+     * @param cart the cart restored from the session
+     */
+    private void resolveProducts(Cart cart) {
+        try {
+            List<String> removed = cart.refreshProducts(productService.getProductsByIds(cart.getProductIds()));
+            if (!removed.isEmpty()) {
+                LOGGER.info("Restored cart: {0} unavailable products removed", removed.size());
+            }
+        } catch (RuntimeException e) {
+            // Lines render with placeholders until the catalogue is reachable again
+            LOGGER.log(Level.WARNING, "Could not resolve products of restored cart", e);
+        }
+    }
+
+    /**
+     * Apply a change to the current cart, write it back and refresh the badge count
+     * For a logged-in user the change runs inside CartStore.update on the
+     * latest stored cart; an empty cart is removed from the store
+     *
+     * @param session the HTTP session
+     * @param change  the modification
+     * @return the modified cart
+     */
+    private Cart modifyCart(HttpSession session, Consumer<Cart> change) {
+        Long userId = ownerId(session);
+        Cart cart;
+        if (userId == null) {
+            cart = getOrCreateCart(session);
+            change.accept(cart);
+            // Set again so session persistence/replication sees the change
+            session.setAttribute(AppConstants.CART, cart);
+        } else {
+            cart = cartStore.update(userId, stored -> {
+                Cart current = stored != null ? stored : new Cart();
+                if (current.hasUnresolvedProducts()) {
+                    resolveProducts(current);
+                }
+                change.accept(current);
+                return current;
+            });
+        }
+        updateCartCount(session, cart);
+        return cart;
+    }
+
     /**
      * Update cart count in session attribute
      * Used for displaying badge in navigation
@@ -210,6 +366,14 @@ public class CartService {
         }
     }
 
+    /**
+     * ID of the logged-in user owning the session, or null for a guest
+     */
+    private static Long ownerId(HttpSession session) {
+        User user = (User) session.getAttribute(AppConstants.AUTH_USER);
+        return user != null ? user.getId() : null;
+    }
+
     /**
      * Get cart item count from session
      *
@@ -0,0 +1,14 @@
+package com.minishop.service;
+
+/**
+ * Thrown when an operation needs current products that cannot be loaded
+ * right now (database unreachable). The caller should ask the user to retry.
+ */
+public class CatalogueUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CatalogueUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,195 @@
+package com.minishop.service;
+
+import com.minishop.config.AppContext;
+import com.minishop.dao.OrderDao;
+import com.minishop.dao.impl.TransactionTemplate;
+import com.minishop.model.Cart;
+import com.minishop.model.CartItem;
+import com.minishop.model.Job;
+import com.minishop.model.Order;
+import com.minishop.model.OrderItem;
+import com.minishop.model.Product;
+import com.minishop.model.User;
+import com.minishop.util.LatencyHistogram;
+import jakarta.servlet.http.HttpSession;
+
+import java.security.SecureRandom;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Checkout service
+ * Turns a cart into a persisted order. The stock decrement, the order row,
+ * all its lines and the confirmation job are written in one transaction with
+ * a fixed number of statements, however many lines the cart has: an order
+ * is never committed without its confirmation job.
+ *
+ * checkout() runs on the stored cart under its lock (CartService.withCart),
+ * so the order and the emptying of the cart happen as one step: a second
+ * tab waits and finds the cart empty, and an item added meanwhile lands in
+ * the next cart. Each checkout form carries a one-time token; an order
+ * already placed with it is returned instead of placing another, and a
+ * unique key on (user_id, checkout_token) backs this up across nodes.
+ */
+public class CheckoutService {
+
+    private static final Logger LOGGER = Logger.getLogger(CheckoutService.class.getName());
+
+    // MySQL error code for ER_DUP_ENTRY
+    private static final int MYSQL_DUPLICATE_KEY = 1062;
+    private static final int CHECKOUT_TOKEN_BYTES = 16;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final OrderDao orderDao;
+    private final CartService cartService;
+    private final StockService stockService;
+    private final ProductService productService;
+    private final TransactionTemplate transactions;
+    private final JobQueue jobQueue;
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    public CheckoutService(OrderDao orderDao, CartService cartService, StockService stockService,
+                           ProductService productService, TransactionTemplate transactions, JobQueue jobQueue) {
+        this.orderDao = orderDao;
+        this.cartService = cartService;
+        this.stockService = stockService;
+        this.productService = productService;
+        this.transactions = transactions;
+        this.jobQueue = jobQueue;
+    }
+
+    /**
+     * Get the instance built at deploy time (see AppContext)
+     */
+    public static CheckoutService getInstance() {
+        return AppContext.get().getCheckoutService();
+    }
+
+    /**
+     * A new one-time token for a checkout form.
+     */
+    public static String newCheckoutToken() {
+        byte[] bytes = new byte[CHECKOUT_TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    public static boolean isValidCheckoutToken(String token) {
+        return token != null && token.length() == (CHECKOUT_TOKEN_BYTES * 4 + 2) / 3
+               && token.chars().allMatch(c -> Character.isLetterOrDigit(c) || c == '-' || c == '_');
+    }
+
+    /**
+     * Check out the session's cart: validate it, place the order and empty
+     * the cart, all while holding the cart (see class comment).
+     *
+     * @param user          the buyer
+     * @param session       the buyer's session
+     * @param checkoutToken the one-time token of the submitted form
+     * @param adjustments   receives the changes validation made to the cart
+     * @return the order placed, now or by an earlier submit of the same form;
+     *         null if the cart was empty or has just been adjusted (see adjustments)
+     * @throws InsufficientStockException if some line can no longer be served; nothing is written
+     * @throws CatalogueUnavailableException if the cart's products cannot be loaded
+     */
+    public Order checkout(User user, HttpSession session, String checkoutToken, List<String> adjustments) {
+        if (!isValidCheckoutToken(checkoutToken)) {
+            throw new IllegalArgumentException("Invalid checkout token");
+        }
+        return cartService.withCart(session, cart -> {
+            Order placed = orderDao.findByCheckoutToken(user.getId(), checkoutToken);
+            if (placed != null) {
+                // Resubmitted form: the cart may already hold new items, leave it alone
+                LOGGER.info("Checkout resubmitted for order #" + placed.getId());
+                return placed;
+            }
+            if (cart.isEmpty()) {
+                return null;
+            }
+            // Let the user review any price or stock change before paying
+            adjustments.addAll(cartService.validate(cart));
+            if (!adjustments.isEmpty()) {
+                return null;
+            }
+            Order order = placeOrder(user, cart, checkoutToken);
+            cart.clear();
+            return order;
+        });
+    }
+
+    /**
+     * Place an order for the cart's contents at the prices it currently holds.
+     * The cart should be validated first so that prices and stock are fresh.
+     *
+     * @param user          the buyer
+     * @param cart          the cart to check out (left unchanged)
+     * @param checkoutToken the one-time token of the submitted form
+     * @return the persisted order, or the one already placed with this token
+     * @throws InsufficientStockException if some line can no longer be served; nothing is written
+     * @throws CatalogueUnavailableException if some products are not resolved
+     */
+    public Order placeOrder(User user, Cart cart, String checkoutToken) {
+        if (user == null) {
+            throw new IllegalArgumentException("User required");
+        }
+        if (cart == null || cart.isEmpty()) {
+            throw new IllegalArgumentException("Cart is empty");
+        }
+        if (cart.hasUnresolvedProducts()) {
+            // Lines would be saved with placeholder names and unchecked prices
+            throw new CatalogueUnavailableException("Cart products could not be loaded");
+        }
+
+        Order order = new Order(user.getId());
+        order.setCheckoutToken(checkoutToken);
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (CartItem item : cart.getItems()) {
+            Product product = item.getProduct();
+            order.addItem(new OrderItem(product.getId(), product.getName(),
+                                        product.getPriceCents(), item.getQuantity()));
+            quantities.put(product.getId(), item.getQuantity());
+        }
+
+        long start = System.nanoTime();
+        Job confirmation;
+        try {
+            confirmation = transactions.execute(conn -> {
+                stockService.reserve(conn, quantities);
+                orderDao.insert(conn, order);
+                return jobQueue.persist(conn, OrderConfirmationHandler.TYPE, String.valueOf(order.getId()));
+            });
+        } catch (SQLException e) {
+            if (e.getErrorCode() == MYSQL_DUPLICATE_KEY) {
+                // Same form submitted on another node at the same time: that order stands
+                Order placed = orderDao.findByCheckoutToken(user.getId(), checkoutToken);
+                if (placed != null) {
+                    LOGGER.info("Checkout token already used by order #" + placed.getId());
+                    return placed;
+                }
+            }
+            LOGGER.log(Level.SEVERE, "Error placing order for user " + user.getId(), e);
+            throw new RuntimeException("Failed to place order", e);
+        } finally {
+            latency.recordSinceNanos(start);
+        }
+
+        // Committed: run it now rather than at the next poll
+        jobQueue.dispatch(confirmation);
+        productService.invalidateStock(quantities.keySet());
+        LOGGER.info("Order placed: #" + order.getId() + " for user " + user.getId() +
+                    " (" + order.getItems().size() + " lines, " + order.getFormattedTotal() + ")");
+        return order;
+    }
+
+    /**
+     * Checkout latency in microseconds (p50/p99 via getPercentile).
+     */
+    public LatencyHistogram getCheckoutLatency() {
+        return latency;
+    }
+}
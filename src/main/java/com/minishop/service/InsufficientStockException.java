@@ -0,0 +1,28 @@
+package com.minishop.service;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Thrown when a stock reservation cannot be satisfied.
+ * Extends IllegalArgumentException so existing "invalid request" handling applies.
+ */
+public class InsufficientStockException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Map<Long, Integer> available;
+
+    /**
+     * @param available current stock of each product that could not be reserved,
+     *                  keyed by product ID (0 for products that no longer exist)
+     */
+    public InsufficientStockException(Map<Long, Integer> available) {
+        super("Insufficient stock for products " + available.keySet());
+        this.available = Collections.unmodifiableMap(available);
+    }
+
+    public Map<Long, Integer> getAvailable() {
+        return available;
+    }
+}
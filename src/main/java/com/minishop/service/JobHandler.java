@@ -0,0 +1,16 @@
+package com.minishop.service;
+
+import com.minishop.model.Job;
+
+/**
+ * Processes one type of background job.
+ * Delivery is at-least-once, so implementations must be idempotent.
+ */
+@FunctionalInterface
+public interface JobHandler {
+
+    /**
+     * Process the job. Throwing marks the attempt as failed and schedules a retry.
+     */
+    void handle(Job job) throws Exception;
+}
@@ -0,0 +1,371 @@
+package com.minishop.service;
+
+import com.minishop.config.AppConstants;
+import com.minishop.config.AppContext;
+import com.minishop.dao.JobDao;
+import com.minishop.model.Job;
+import com.minishop.util.LatencyHistogram;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Background job queue
+ * Jobs are written to the jobs table, in the caller's transaction when they
+ * belong to a business write (persist, then dispatch after commit), before
+ * being handed to a bounded in-memory queue drained by a fixed pool of workers. When the queue is
+ * full, or after a restart, a poller picks PENDING rows back up, so a
+ * request thread never waits more than JOB_SUBMIT_TIMEOUT_MS and no
+ * submitted job is lost.
+ *
+ * A claimed job is leased to this queue's owner id for JOB_LEASE_MS and the
+ * lease is renewed while the queue runs. Only jobs whose lease has expired
+ * are put back to PENDING, so several nodes can share the table and a
+ * restarting node never steals a job another node is still running.
+ */
+public class JobQueue {
+
+    private static final Logger LOGGER = Logger.getLogger(JobQueue.class.getName());
+
+    private final JobDao jobDao;
+    // Identifies this process in jobs.locked_by
+    private final String owner = ownerId();
+    private final Map<String, JobHandler> handlers = new ConcurrentHashMap<>();
+    private final BlockingQueue<Job> queue = new ArrayBlockingQueue<>(AppConstants.JOB_QUEUE_CAPACITY);
+
+    // Ids currently queued or running, so the poller does not enqueue them twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LatencyHistogram queueLatency = new LatencyHistogram();
+    private final LatencyHistogram processingTime = new LatencyHistogram();
+
+    private ExecutorService workers;
+    private ScheduledExecutorService poller;
+    private volatile boolean running;
+
+    public JobQueue(JobDao jobDao) {
+        this.jobDao = jobDao;
+    }
+
+    /**
+     * Get the instance built at deploy time (see AppContext)
+     */
+    public static JobQueue getInstance() {
+        return AppContext.get().getJobQueue();
+    }
+
+    public void register(String type, JobHandler handler) {
+        handlers.put(type, handler);
+    }
+
+    /**
+     * Start the workers and the poller. Jobs whose lease has expired (left
+     * RUNNING by a crashed process) are put back to PENDING first.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+
+        recoverExpired();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(AppConstants.JOB_WORKER_THREADS, r -> {
+            Thread t = new Thread(r, "minishop-job-worker-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        for (int i = 0; i < AppConstants.JOB_WORKER_THREADS; i++) {
+            workers.execute(this::workLoop);
+        }
+
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "minishop-job-poller");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(this::pollDue, 0, AppConstants.JOB_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        poller.scheduleWithFixedDelay(this::heartbeat, AppConstants.JOB_LEASE_RENEW_INTERVAL_MS,
+                                      AppConstants.JOB_LEASE_RENEW_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        LOGGER.info("Job queue started as " + owner + " (" + AppConstants.JOB_WORKER_THREADS
+                    + " workers, capacity " + AppConstants.JOB_QUEUE_CAPACITY + ")");
+    }
+
+    /**
+     * Stop accepting work and wait briefly for running jobs.
+     * Queued jobs stay PENDING in the database for the next start.
+     */
+    public synchronized void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        poller.shutdownNow();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        queue.clear();
+        inFlight.clear();
+        LOGGER.info("Job queue stopped");
+    }
+
+    /**
+     * Persist a job and hand it to the workers.
+     *
+     * @return the persisted job
+     * @throws IllegalArgumentException if no handler is registered for the type
+     * @throws RuntimeException if the job could not be persisted
+     */
+    public Job submit(String type, String payload) {
+        checkHandler(type);
+        Job job = jobDao.insert(type, payload);
+        dispatch(job);
+        return job;
+    }
+
+    /**
+     * Persist a job inside the caller's transaction (transactional outbox):
+     * the job exists if and only if the caller's writes commit.
+     * Pass it to dispatch() once the transaction has committed; if that
+     * never happens (crash, error), the poller still finds the row.
+     *
+     * @throws IllegalArgumentException if no handler is registered for the type
+     */
+    public Job persist(Connection conn, String type, String payload) throws SQLException {
+        checkHandler(type);
+        return jobDao.insert(conn, type, payload);
+    }
+
+    /**
+     * Hand a persisted, committed job to the workers without waiting for the poller.
+     */
+    public void dispatch(Job job) {
+        submitted.increment();
+        if (!enqueue(job, AppConstants.JOB_SUBMIT_TIMEOUT_MS)) {
+            // Safe in the database; the poller will run it once there is room
+            deferred.increment();
+            LOGGER.warning("Job queue full, job #" + job.getId() + " deferred to the poller");
+        }
+    }
+
+    private void checkHandler(String type) {
+        if (!handlers.containsKey(type)) {
+            throw new IllegalArgumentException("No handler for job type " + type);
+        }
+    }
+
+    private boolean enqueue(Job job, long timeoutMs) {
+        if (!inFlight.add(job.getId())) {
+            return true;
+        }
+        try {
+            if (queue.offer(job, timeoutMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        inFlight.remove(job.getId());
+        return false;
+    }
+
+    private void workLoop() {
+        while (running) {
+            Job job;
+            try {
+                job = queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (job == null) {
+                continue;
+            }
+            try {
+                process(job);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Unexpected error processing job #" + job.getId(), e);
+            } finally {
+                inFlight.remove(job.getId());
+            }
+        }
+    }
+
+    private void process(Job job) {
+        // Another node, or an earlier poll, may already have taken it
+        int attempt = jobDao.claim(job.getId(), owner, AppConstants.JOB_LEASE_MS);
+        if (attempt == 0) {
+            return;
+        }
+        if (job.getCreatedAt() != null) {
+            queueLatency.record((System.currentTimeMillis() - job.getCreatedAt().getTime()) * 1_000);
+        }
+
+        long start = System.nanoTime();
+        try {
+            JobHandler handler = handlers.get(job.getType());
+            if (handler == null) {
+                throw new IllegalStateException("No handler for job type " + job.getType());
+            }
+            handler.handle(job);
+            if (jobDao.markDone(job.getId(), owner)) {
+                completed.increment();
+            } else {
+                leaseLost(job);
+            }
+        } catch (Exception e) {
+            if (attempt >= AppConstants.JOB_MAX_ATTEMPTS) {
+                failed.increment();
+                LOGGER.log(Level.SEVERE, "Job #" + job.getId() + " failed permanently after "
+                           + attempt + " attempts", e);
+            } else {
+                retried.increment();
+                LOGGER.log(Level.WARNING, "Job #" + job.getId() + " failed (attempt " + attempt
+                           + "), will retry", e);
+            }
+            if (!jobDao.markFailed(job.getId(), owner, e.toString(), retryDelayMs(attempt),
+                                   AppConstants.JOB_MAX_ATTEMPTS)) {
+                leaseLost(job);
+            }
+        } finally {
+            processingTime.recordSinceNanos(start);
+        }
+    }
+
+    private static void leaseLost(Job job) {
+        // Ran longer than the lease without renewal; it was recovered and may run again
+        LOGGER.warning("Lease on job #" + job.getId() + " expired before it finished, result discarded");
+    }
+
+    /**
+     * Exponential backoff: base, 2 x base, 4 x base...
+     */
+    private static long retryDelayMs(int attempt) {
+        return AppConstants.JOB_RETRY_BASE_DELAY_MS << Math.min(attempt - 1, 10);
+    }
+
+    /**
+     * Load due PENDING jobs into whatever room the queue has left.
+     */
+    private void pollDue() {
+        try {
+            int room = queue.remainingCapacity();
+            if (room == 0) {
+                return;
+            }
+            List<Job> due = jobDao.findDue(room);
+            for (Job job : due) {
+                if (!enqueue(job, 0)) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Job poller failed", e);
+        }
+    }
+
+    /**
+     * Keep the leases of this node's running jobs alive and take back the
+     * jobs of nodes that stopped renewing theirs.
+     */
+    private void heartbeat() {
+        try {
+            jobDao.renewLeases(owner, AppConstants.JOB_LEASE_MS);
+            recoverExpired();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Job lease renewal failed", e);
+        }
+    }
+
+    private void recoverExpired() {
+        int recovered = jobDao.recoverExpired();
+        if (recovered > 0) {
+            LOGGER.warning("Recovered " + recovered + " job(s) with an expired lease");
+        }
+    }
+
+    /**
+     * host:pid:random, unique per start so that a restarted process does not
+     * renew the leases of the jobs its previous incarnation left behind.
+     */
+    private static String ownerId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        String id = host + ":" + ProcessHandle.current().pid() + ":"
+                    + Integer.toHexString(ThreadLocalRandom.current().nextInt());
+        // Fits jobs.locked_by, keeping the unique tail
+        return id.length() > 64 ? id.substring(id.length() - 64) : id;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    public long getDeferredCount() {
+        return deferred.sum();
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    public long getRetriedCount() {
+        return retried.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Time from submission to a worker picking the job up, in microseconds.
+     */
+    public LatencyHistogram getQueueLatency() {
+        return queueLatency;
+    }
+
+    /**
+     * Handler execution time, in microseconds.
+     */
+    public LatencyHistogram getProcessingTime() {
+        return processingTime;
+    }
+}
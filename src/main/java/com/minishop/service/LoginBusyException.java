@@ -0,0 +1,14 @@
+package com.minishop.service;
+
+/**
+ * Thrown when a login cannot be checked right now because the password
+ * verification pool is saturated. The caller should ask the user to retry.
+ */
+public class LoginBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LoginBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,35 @@
+package com.minishop.service;
+
+import com.minishop.dao.OrderDao;
+import com.minishop.model.Job;
+import com.minishop.model.Order;
+
+import java.util.logging.Logger;
+
+/**
+ * Confirms a placed order in the background.
+ * Only PENDING orders are moved to CONFIRMED, so running the same job twice is harmless.
+ */
+public class OrderConfirmationHandler implements JobHandler {
+
+    public static final String TYPE = "ORDER_PLACED";
+
+    private static final Logger LOGGER = Logger.getLogger(OrderConfirmationHandler.class.getName());
+
+    private final OrderDao orderDao;
+
+    public OrderConfirmationHandler(OrderDao orderDao) {
+        this.orderDao = orderDao;
+    }
+
+    @Override
+    public void handle(Job job) {
+        long orderId = Long.parseLong(job.getPayload());
+
+        if (orderDao.updateStatus(orderId, Order.STATUS_PENDING, Order.STATUS_CONFIRMED)) {
+            LOGGER.info("Order #" + orderId + " confirmed");
+        } else {
+            LOGGER.fine("Order #" + orderId + " was already processed");
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.minishop.service;
+
+import com.minishop.model.Product;
+import com.minishop.model.ProductPage;
+import com.minishop.util.CacheStats;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Read-through in-memory cache of the product catalogue.
+ * Holds products by id, the full list in created_at DESC order and
+ * recently requested catalogue pages keyed by cursor.
+ * Entries expire after a TTL; admin writes invalidate them explicitly.
+ */
+public class ProductCache {
+
+    // Pages are cheap to rebuild; keep only the hot ones (first pages, recent cursors)
+    private static final int MAX_PAGES = 256;
+
+    private final long ttlMs;
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, PageEntry> pages = new ConcurrentHashMap<>();
+    private volatile ListEntry all;
+
+    // Bumped by every invalidation so a load racing with a write is not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ProductCache(long ttlMs, int maxEntries) {
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Get a product by id, calling the loader on a miss.
+     * Unknown ids are not cached.
+     */
+    public Product get(long id, LongFunction<Product> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = byId.get(id);
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            return entry.product;
+        }
+
+        misses.increment();
+        long gen = generation.get();
+        long start = System.nanoTime();
+        Product product = loader.apply(id);
+        recordLoad(start);
+
+        if (product != null && gen == generation.get()) {
+            put(product, now);
+        }
+        return product;
+    }
+
+    /**
+     * Get several products by id. Cached ones are returned directly and the
+     * rest are fetched with a single call to the batch loader.
+     * Unknown ids are absent from the result.
+     */
+    public Map<Long, Product> getMany(Collection<Long> ids,
+                                      Function<Collection<Long>, List<Product>> loader) {
+        long now = System.currentTimeMillis();
+        Map<Long, Product> found = new HashMap<>(ids.size() * 2);
+        List<Long> missing = new ArrayList<>();
+
+        for (Long id : ids) {
+            Entry entry = byId.get(id);
+            if (entry != null && entry.expiresAt > now) {
+                hits.increment();
+                found.put(id, entry.product);
+            } else if (!found.containsKey(id)) {
+                misses.increment();
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long gen = generation.get();
+            long start = System.nanoTime();
+            List<Product> loaded = loader.apply(missing);
+            recordLoad(start);
+
+            boolean store = gen == generation.get();
+            for (Product product : loaded) {
+                found.put(product.getId(), product);
+                if (store) {
+                    put(product, now);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Get the full catalogue in display order, calling the loader on a miss.
+     * The loader must throw on failure: whatever it returns is cached for the TTL.
+     */
+    public List<Product> getAll(Supplier<List<Product>> loader) {
+        long now = System.currentTimeMillis();
+        ListEntry entry = all;
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            return entry.products;
+        }
+
+        misses.increment();
+        long gen = generation.get();
+        long start = System.nanoTime();
+        List<Product> products = Collections.unmodifiableList(loader.get());
+        recordLoad(start);
+
+        if (gen == generation.get()) {
+            all = new ListEntry(products, now + ttlMs);
+            for (Product product : products) {
+                put(product, now);
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Get a catalogue page by key, calling the loader on a miss.
+     * The loader must throw on failure: whatever it returns is cached for the TTL.
+     */
+    public ProductPage getPage(String key, Supplier<ProductPage> loader) {
+        long now = System.currentTimeMillis();
+        PageEntry entry = pages.get(key);
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            return entry.page;
+        }
+
+        misses.increment();
+        long gen = generation.get();
+        long start = System.nanoTime();
+        ProductPage page = loader.get();
+        recordLoad(start);
+
+        if (gen == generation.get()) {
+            if (pages.size() >= MAX_PAGES) {
+                evictions.add(pages.size());
+                pages.clear();
+            }
+            pages.put(key, new PageEntry(page, now + ttlMs));
+            for (Product product : page.getProducts()) {
+                put(product, now);
+            }
+        }
+        return page;
+    }
+
+    private void put(Product product, long now) {
+        if (byId.size() >= maxEntries && !byId.containsKey(product.getId())) {
+            evict(now);
+        }
+        byId.put(product.getId(), new Entry(product, now + ttlMs));
+    }
+
+    /**
+     * Drop a product and the list and pages that contain it.
+     */
+    public void invalidate(long id) {
+        generation.incrementAndGet();
+        byId.remove(id);
+        pages.clear();
+        all = null;
+    }
+
+    /**
+     * Drop the catalogue list and pages only (e.g. after a product is created).
+     */
+    public void invalidateList() {
+        generation.incrementAndGet();
+        pages.clear();
+        all = null;
+    }
+
+    /**
+     * Drop cached products whose stock changed, keeping lists and pages.
+     * Listings may show the old stock until their TTL expires; purchases are
+     * always checked against the database.
+     */
+    public void invalidateProducts(Collection<Long> ids) {
+        generation.incrementAndGet();
+        for (Long id : ids) {
+            byId.remove(id);
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        byId.clear();
+        pages.clear();
+        all = null;
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), loads.sum(), loadNanos.sum(),
+            evictions.sum(), byId.size());
+    }
+
+    private void recordLoad(long startNanos) {
+        loads.increment();
+        loadNanos.add(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Make room by dropping expired entries, or the entry closest to expiry.
+     * Only runs when the cache is full, so the linear scan is acceptable.
+     */
+    private void evict(long now) {
+        Long oldestId = null;
+        long oldestExpiry = Long.MAX_VALUE;
+        for (Map.Entry<Long, Entry> e : byId.entrySet()) {
+            long expiresAt = e.getValue().expiresAt;
+            if (expiresAt <= now) {
+                if (byId.remove(e.getKey(), e.getValue())) {
+                    evictions.increment();
+                }
+            } else if (expiresAt < oldestExpiry) {
+                oldestExpiry = expiresAt;
+                oldestId = e.getKey();
+            }
+        }
+        if (byId.size() >= maxEntries && oldestId != null && byId.remove(oldestId) != null) {
+            evictions.increment();
+        }
+    }
+
+    private static final class Entry {
+        private final Product product;
+        private final long expiresAt;
+
+        private Entry(Product product, long expiresAt) {
+            this.product = product;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class ListEntry {
+        private final List<Product> products;
+        private final long expiresAt;
+
+        private ListEntry(List<Product> products, long expiresAt) {
+            this.products = products;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class PageEntry {
+        private final ProductPage page;
+        private final long expiresAt;
+
+        private PageEntry(ProductPage page, long expiresAt) {
+            this.page = page;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
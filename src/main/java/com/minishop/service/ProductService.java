@@ -1,57 +1,196 @@
 package com.minishop.service;
 
+import com.minishop.config.AppContext;
 import com.minishop.dao.ProductDao;
-import com.minishop.dao.impl.ProductDaoJdbc;
+import com.minishop.model.PageCursor;
 import com.minishop.model.Product;
+import com.minishop.model.ProductPage;
+import com.minishop.util.CacheStats;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Product service.
+ * Catalogue reads go through an in-memory cache that admin writes invalidate.
+ * Text search is served by an in-memory index that admin writes update in place.
  */
 public class ProductService {
 
     private static final Logger LOGGER = Logger.getLogger(ProductService.class.getName());
-    private static ProductService instance;
 
     private final ProductDao productDao;
+    private final ProductCache cache;
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final ReentrantLock searchIndexLock = new ReentrantLock();
+    private volatile boolean searchIndexBuilt;
 
-    private ProductService() {
-        this.productDao = new ProductDaoJdbc();
+    public ProductService(ProductDao productDao, ProductCache cache) {
+        this.productDao = productDao;
+        this.cache = cache;
     }
 
-    public static synchronized ProductService getInstance() {
-        if (instance == null) {
-            instance = new ProductService();
-        }
-        return instance;
+    /**
+     * Get the instance built at deploy time (see AppContext)
+     */
+    public static ProductService getInstance() {
+        return AppContext.get().getProductService();
     }
 
     public List<Product> getAllProducts() {
         try {
-            return productDao.findAll();
+            return cache.getAll(productDao::findAll);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error getting all products", e);
             throw new RuntimeException("Failed to retrieve products", e);
         }
     }
 
+    /**
+     * Get one page of the catalogue using keyset pagination.
+     * Pass the next cursor of the current page as {@code after}, or its
+     * previous cursor as {@code before}; with neither, the first page is returned.
+     * Malformed cursors fall back to the first page.
+     */
+    public ProductPage getProductPage(String after, String before, int pageSize) {
+        PageCursor afterCursor = PageCursor.decode(after);
+        PageCursor beforeCursor = afterCursor == null ? PageCursor.decode(before) : null;
+        String key = (beforeCursor != null ? "b:" + beforeCursor : "a:" + afterCursor) + ":" + pageSize;
+
+        try {
+            return cache.getPage(key, () -> beforeCursor != null
+                ? loadPageBefore(beforeCursor, pageSize)
+                : loadPageAfter(afterCursor, pageSize));
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error getting product page", e);
+            throw new RuntimeException("Failed to retrieve products", e);
+        }
+    }
+
+    private ProductPage loadPageAfter(PageCursor after, int pageSize) {
+        // Fetch one extra row to know whether a next page exists
+        List<Product> rows = new ArrayList<>(productDao.findPageAfter(after, pageSize + 1));
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows.remove(rows.size() - 1);
+        }
+        String next = hasNext ? PageCursor.of(rows.get(rows.size() - 1)).encode() : null;
+        String prev = after != null && !rows.isEmpty() ? PageCursor.of(rows.get(0)).encode() : null;
+        return new ProductPage(rows, next, prev);
+    }
+
+    private ProductPage loadPageBefore(PageCursor before, int pageSize) {
+        List<Product> rows = new ArrayList<>(productDao.findPageBefore(before, pageSize + 1));
+        if (rows.isEmpty()) {
+            // Nothing newer than the cursor: show the first page instead
+            return loadPageAfter(null, pageSize);
+        }
+        boolean hasPrev = rows.size() > pageSize;
+        if (hasPrev) {
+            rows.remove(0);
+        }
+        String prev = hasPrev ? PageCursor.of(rows.get(0)).encode() : null;
+        String next = PageCursor.of(rows.get(rows.size() - 1)).encode();
+        return new ProductPage(rows, next, prev);
+    }
+
     public Product getProductById(long id) {
         try {
-            return productDao.findById(id);
+            return cache.get(id, productDao::findById);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error getting product by ID: " + id, e);
             return null;
         }
     }
 
+    /**
+     * Get several products at once: cached ones from memory, the rest in one batched query.
+     *
+     * @return products keyed by id; unknown ids are absent
+     * @throws RuntimeException if the products could not be loaded
+     */
+    public Map<Long, Product> getProductsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return cache.getMany(ids, productDao::findByIds);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error getting products by IDs: " + ids, e);
+            throw new RuntimeException("Failed to retrieve products", e);
+        }
+    }
+
+    /**
+     * Full-text search over names and descriptions.
+     * The index is built at deploy, or on first use if that failed.
+     *
+     * @return matching products, best match first
+     * @throws RuntimeException if the index or the products could not be loaded
+     */
+    public List<Product> search(String query, int limit) {
+        ensureSearchIndex();
+        List<Long> ids = searchIndex.search(query, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Product> products = getProductsByIds(ids);
+        List<Product> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = products.get(id);
+            if (product != null) {
+                results.add(product);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Build the search index now rather than on the first search.
+     * On failure the first search tries again.
+     */
+    public void buildSearchIndex() {
+        try {
+            ensureSearchIndex();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Search index not built at startup, retrying on first search", e);
+        }
+    }
+
+    private void ensureSearchIndex() {
+        if (searchIndexBuilt) {
+            return;
+        }
+        // A lock rather than a monitor: the build queries the database
+        searchIndexLock.lock();
+        try {
+            if (!searchIndexBuilt) {
+                long start = System.nanoTime();
+                // findAll throws on error, so a failed load leaves the flag unset
+                // and writes made during the load are replayed by rebuild()
+                searchIndex.rebuild(productDao::findAll);
+                searchIndexBuilt = true;
+                LOGGER.info("Search index built: " + searchIndex.size() + " products in " +
+                            (System.nanoTime() - start) / 1_000_000 + "ms");
+            }
+        } finally {
+            searchIndexLock.unlock();
+        }
+    }
+
     // Admin methods
 
     public void createProduct(Product product) {
         try {
             productDao.create(product);
+            cache.invalidateList();
+            searchIndex.index(product);
             LOGGER.info("Admin created product: " + product.getName());
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error creating product", e);
@@ -62,6 +201,8 @@ public class ProductService {
     public void updateProduct(Product product) {
         try {
             productDao.update(product);
+            cache.invalidate(product.getId());
+            searchIndex.index(product);
             LOGGER.info("Admin updated product: " + product.getName());
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error updating product", e);
@@ -72,10 +213,26 @@ public class ProductService {
     public void deleteProduct(long id) {
         try {
             productDao.delete(id);
+            cache.invalidate(id);
+            searchIndex.remove(id);
             LOGGER.info("Admin deleted product ID: " + id);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error deleting product", e);
             throw new RuntimeException("Failed to delete product", e);
         }
     }
+
+    /**
+     * Forget cached stock levels after a reservation or release.
+     */
+    public void invalidateStock(Collection<Long> ids) {
+        cache.invalidateProducts(ids);
+    }
+
+    /**
+     * Catalogue cache counters (hit ratio, load time).
+     */
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
 }
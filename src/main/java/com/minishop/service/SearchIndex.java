@@ -0,0 +1,501 @@
+package com.minishop.service;
+
+import com.minishop.model.Product;
+import com.minishop.util.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * In-memory inverted index over product names and descriptions.
+ * Terms are accent-folded, so "electronique" finds "Électronique". Every
+ * query word must match, either exactly or as a prefix of an indexed term,
+ * and results are ranked by TF-IDF with name matches weighted higher.
+ *
+ * Each product gets an int ordinal and postings are sorted int arrays, so a
+ * query scans primitive arrays instead of boxed maps. A query only allocates
+ * for the products matching its rarest word. Ordinals of updated or deleted
+ * products are reclaimed once they outnumber the live ones, and by rebuild().
+ */
+public class SearchIndex {
+
+    private static final float NAME_BOOST = 3.0f;
+    private static final float DESCRIPTION_BOOST = 1.0f;
+
+    // A prefix match counts less than the exact word
+    private static final float PREFIX_PENALTY = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    // Bounds the work for very short prefixes such as "ch"
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    // Queries with more words than this are truncated
+    private static final int MAX_QUERY_WORDS = 8;
+
+    // Dead ordinals tolerated before compacting, whatever the index size
+    private static final int MIN_COMPACT_FREED = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+
+    // Writes made while rebuild() loads its snapshot, null when no rebuild runs.
+    // Replayed on the new index, since the snapshot may predate them.
+    private List<Consumer<State>> pendingWrites;
+
+    /**
+     * Replace the whole index with the products returned by the loader.
+     * The new index is built before the lock is taken, so searches keep
+     * running against the old one meanwhile. Calls must not overlap.
+     *
+     * @throws RuntimeException from the loader; the current index is kept
+     */
+    public void rebuild(Supplier<? extends Collection<Product>> loader) {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            State fresh = new State();
+            for (Product product : loader.get()) {
+                fresh.add(product);
+            }
+            lock.writeLock().lock();
+            try {
+                // In order, so the latest write to a product wins
+                for (Consumer<State> write : pendingWrites) {
+                    write.accept(fresh);
+                }
+                state = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                pendingWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Add or re-index one product.
+     */
+    public void index(Product product) {
+        write(target -> {
+            target.remove(product.getId());
+            target.add(product);
+        });
+    }
+
+    public void remove(long id) {
+        write(target -> target.remove(id));
+    }
+
+    /**
+     * Apply a write now, and again on the index being rebuilt if any.
+     */
+    private void write(Consumer<State> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(state);
+            if (pendingWrites != null) {
+                pendingWrites.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return state.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the best matching products.
+     *
+     * @param query free text typed by the user
+     * @param limit maximum number of ids returned
+     * @return product ids, best match first
+     */
+    public List<Long> search(String query, int limit) {
+        Set<String> words = new LinkedHashSet<>(TextNormalizer.tokenize(query));
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            return state.search(words, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Index contents; replaced wholesale by rebuild().
+     */
+    private static final class State {
+
+        // term -> products containing it
+        private final TreeMap<String, Postings> postings = new TreeMap<>();
+
+        // product id -> ordinal and terms, to unindex it on update or delete
+        private final Map<Long, Document> documents = new HashMap<>();
+
+        // ordinal -> product id
+        private long[] ids = new long[1024];
+        private int nextOrdinal;
+
+        // Ordinals of removed products, still taking room in ids
+        private int freed;
+
+        private void add(Product product) {
+            Map<String, Float> weights = new HashMap<>();
+            for (String term : TextNormalizer.tokenize(product.getName())) {
+                weights.merge(term, NAME_BOOST, Float::sum);
+            }
+            for (String term : TextNormalizer.tokenize(product.getDescription())) {
+                weights.merge(term, DESCRIPTION_BOOST, Float::sum);
+            }
+            if (weights.isEmpty()) {
+                return;
+            }
+
+            int ordinal = nextOrdinal++;
+            if (ordinal == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            ids[ordinal] = product.getId();
+
+            for (Map.Entry<String, Float> e : weights.entrySet()) {
+                // Dampen repeated words so keyword stuffing does not dominate
+                float weight = 1.0f + (float) Math.log(e.getValue());
+                postings.computeIfAbsent(e.getKey(), k -> new Postings()).add(ordinal, weight);
+            }
+            documents.put(product.getId(),
+                new Document(ordinal, weights.keySet().toArray(new String[0])));
+        }
+
+        private void remove(long id) {
+            Document doc = documents.remove(id);
+            if (doc == null) {
+                return;
+            }
+            for (String term : doc.terms) {
+                Postings list = postings.get(term);
+                if (list != null && list.remove(doc.ordinal) && list.size == 0) {
+                    postings.remove(term);
+                }
+            }
+            freed++;
+            if (freed > documents.size() && freed >= MIN_COMPACT_FREED) {
+                compact();
+            }
+        }
+
+        /**
+         * Renumber live products 0..n-1, keeping their order, so postings
+         * stay sorted and only need their ordinals rewritten.
+         */
+        private void compact() {
+            int[] remap = new int[nextOrdinal];
+            long[] compacted = new long[Math.max(1024, documents.size() * 2)];
+            int next = 0;
+            for (int old = 0; old < nextOrdinal; old++) {
+                Document doc = documents.get(ids[old]);
+                if (doc != null && doc.ordinal == old) {
+                    remap[old] = next;
+                    doc.ordinal = next;
+                    compacted[next++] = ids[old];
+                }
+            }
+            for (Postings list : postings.values()) {
+                for (int i = 0; i < list.size; i++) {
+                    list.docs[i] = remap[list.docs[i]];
+                }
+            }
+            ids = compacted;
+            nextOrdinal = next;
+            freed = 0;
+        }
+
+        private List<Long> search(Set<String> words, int limit) {
+            List<Match[]> perWord = new ArrayList<>(words.size());
+            for (String word : words) {
+                Match[] matches = expand(word);
+                if (matches.length == 0) {
+                    // Every word must match
+                    return List.of();
+                }
+                perWord.add(matches);
+                if (perWord.size() == MAX_QUERY_WORDS) {
+                    break;
+                }
+            }
+            // Rarest word first: it bounds the candidate set
+            perWord.sort((a, b) -> Long.compare(postingCount(a), postingCount(b)));
+
+            // Candidates are the products matching the first word, sorted by
+            // ordinal; per-query scores are indexed by position in this array
+            int[] candidates = candidates(perWord.get(0));
+            int candidateCount = candidates.length;
+            float[] total = new float[candidateCount];
+            float[] current = new float[candidateCount];
+            byte[] matchedWords = new byte[candidateCount];
+
+            for (int w = 0; w < perWord.size(); w++) {
+                byte required = (byte) w;
+                for (Match match : perWord.get(w)) {
+                    Postings list = match.postings;
+                    // Few candidates against a long list: probe instead of scanning
+                    boolean probe = (long) candidateCount * 32 < list.size;
+                    if (probe) {
+                        for (int c = 0; c < candidateCount; c++) {
+                            if (matchedWords[c] >= required) {
+                                int i = Arrays.binarySearch(list.docs, 0, list.size, candidates[c]);
+                                if (i >= 0) {
+                                    score(c, list.weights[i] * match.factor, required,
+                                          total, current, matchedWords);
+                                }
+                            }
+                        }
+                    } else {
+                        // Both sorted by ordinal: walk them side by side
+                        int c = 0;
+                        int i = 0;
+                        while (c < candidateCount && i < list.size) {
+                            if (candidates[c] < list.docs[i]) {
+                                c++;
+                            } else if (candidates[c] > list.docs[i]) {
+                                i++;
+                            } else {
+                                score(c, list.weights[i] * match.factor, required,
+                                      total, current, matchedWords);
+                                c++;
+                                i++;
+                            }
+                        }
+                    }
+                }
+            }
+
+            return topResults(candidates, total, matchedWords, (byte) perWord.size(), limit);
+        }
+
+        /**
+         * Distinct ordinals in the postings of one word's matches, sorted.
+         */
+        private static int[] candidates(Match[] matches) {
+            int[] docs = new int[(int) postingCount(matches)];
+            int count = 0;
+            for (Match match : matches) {
+                System.arraycopy(match.postings.docs, 0, docs, count, match.postings.size);
+                count += match.postings.size;
+            }
+            if (matches.length == 1) {
+                return docs;
+            }
+            Arrays.sort(docs);
+            int unique = 0;
+            for (int i = 0; i < count; i++) {
+                if (unique == 0 || docs[i] != docs[unique - 1]) {
+                    docs[unique++] = docs[i];
+                }
+            }
+            return unique == count ? docs : Arrays.copyOf(docs, unique);
+        }
+
+        /**
+         * Credit one word to a candidate that matched all the previous ones.
+         * A candidate matching several expansions of the word keeps the best.
+         */
+        private static void score(int c, float score, byte required,
+                                  float[] total, float[] current, byte[] matchedWords) {
+            if (matchedWords[c] == required) {
+                matchedWords[c] = (byte) (required + 1);
+                total[c] += score;
+                current[c] = score;
+            } else if (matchedWords[c] == required + 1 && score > current[c]) {
+                total[c] += score - current[c];
+                current[c] = score;
+            }
+        }
+
+        /**
+         * Indexed terms matching a query word: the word itself, then terms it prefixes.
+         */
+        private Match[] expand(String word) {
+            List<Match> matches = new ArrayList<>();
+            Postings exact = postings.get(word);
+            if (exact != null) {
+                matches.add(new Match(exact, idf(exact)));
+            }
+            if (word.length() >= MIN_PREFIX_LENGTH) {
+                for (Postings list : postings.subMap(word, false, word + Character.MAX_VALUE, false).values()) {
+                    if (matches.size() >= MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+                    matches.add(new Match(list, idf(list) * PREFIX_PENALTY));
+                }
+            }
+            return matches.toArray(new Match[0]);
+        }
+
+        private float idf(Postings list) {
+            return (float) Math.log(1.0 + (double) documents.size() / list.size);
+        }
+
+        private static long postingCount(Match[] matches) {
+            long count = 0;
+            for (Match match : matches) {
+                count += match.postings.size;
+            }
+            return count;
+        }
+
+        /**
+         * Best {@code limit} products by score; ties go to the newest (highest id).
+         * Min-heap of candidate positions kept in plain arrays.
+         */
+        private List<Long> topResults(int[] candidates, float[] total,
+                                      byte[] matchedWords, byte required, int limit) {
+            int[] heap = new int[Math.min(limit, candidates.length)];
+            int heapSize = 0;
+            for (int c = 0; c < candidates.length; c++) {
+                if (matchedWords[c] != required) {
+                    continue;
+                }
+                if (heapSize < heap.length) {
+                    heap[heapSize] = c;
+                    siftUp(heap, heapSize++, candidates, total);
+                } else if (heap.length > 0 && better(c, heap[0], candidates, total)) {
+                    heap[0] = c;
+                    siftDown(heap, heapSize, candidates, total);
+                }
+            }
+
+            Long[] result = new Long[heapSize];
+            for (int i = heapSize - 1; i >= 0; i--) {
+                result[i] = ids[candidates[heap[0]]];
+                heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize, candidates, total);
+            }
+            return List.of(result);
+        }
+
+        private boolean better(int a, int b, int[] candidates, float[] total) {
+            return total[a] != total[b] ? total[a] > total[b] : ids[candidates[a]] > ids[candidates[b]];
+        }
+
+        private void siftUp(int[] heap, int i, int[] candidates, float[] total) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!better(heap[parent], heap[i], candidates, total)) {
+                    break;
+                }
+                swap(heap, i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int size, int[] candidates, float[] total) {
+            int i = 0;
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) {
+                    break;
+                }
+                int worst = left;
+                if (left + 1 < size && better(heap[left], heap[left + 1], candidates, total)) {
+                    worst = left + 1;
+                }
+                if (!better(heap[i], heap[worst], candidates, total)) {
+                    break;
+                }
+                swap(heap, i, worst);
+                i = worst;
+            }
+        }
+
+        private static void swap(int[] heap, int i, int j) {
+            int tmp = heap[i];
+            heap[i] = heap[j];
+            heap[j] = tmp;
+        }
+    }
+
+    /**
+     * Products containing one term, sorted by ordinal, with the term's weight in each.
+     * Ordinals are handed out in increasing order, so add() is an append.
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        private void add(int doc, float weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+
+        private boolean remove(int doc) {
+            int i = Arrays.binarySearch(docs, 0, size, doc);
+            if (i < 0) {
+                return false;
+            }
+            System.arraycopy(docs, i + 1, docs, i, size - i - 1);
+            System.arraycopy(weights, i + 1, weights, i, size - i - 1);
+            size--;
+            return true;
+        }
+    }
+
+    private static final class Document {
+        // Rewritten by State.compact()
+        private int ordinal;
+        private final String[] terms;
+
+        private Document(int ordinal, String[] terms) {
+            this.ordinal = ordinal;
+            this.terms = terms;
+        }
+    }
+
+    /**
+     * One indexed term matched by a query word, with its idf and prefix factor folded in.
+     */
+    private static final class Match {
+        private final Postings postings;
+        private final float factor;
+
+        private Match(Postings postings, float factor) {
+            this.postings = postings;
+            this.factor = factor;
+        }
+    }
+}
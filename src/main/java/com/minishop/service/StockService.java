@@ -0,0 +1,115 @@
+package com.minishop.service;
+
+import com.minishop.config.AppContext;
+import com.minishop.dao.StockDao;
+import com.minishop.dao.impl.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stock reservation service.
+ * Takes stock with conditional UPDATEs so that concurrent buyers of the same
+ * product can never drive it below zero; multi-line reservations are all-or-nothing.
+ */
+public class StockService {
+
+    private static final Logger LOGGER = Logger.getLogger(StockService.class.getName());
+    private final StockDao stockDao;
+    private final TransactionTemplate transactions;
+    private final ProductService productService;
+
+    public StockService(StockDao stockDao, TransactionTemplate transactions, ProductService productService) {
+        this.stockDao = stockDao;
+        this.transactions = transactions;
+        this.productService = productService;
+    }
+
+    /**
+     * Get the instance built at deploy time (see AppContext)
+     */
+    public static StockService getInstance() {
+        return AppContext.get().getStockService();
+    }
+
+    /**
+     * Reserve (decrement) stock for every line in its own transaction.
+     *
+     * @param quantities quantity to take, keyed by product ID
+     * @throws InsufficientStockException if any line cannot be satisfied; nothing is reserved
+     */
+    public void reserve(Map<Long, Integer> quantities) {
+        validate(quantities);
+        try {
+            transactions.execute(conn -> {
+                reserve(conn, quantities);
+                return null;
+            });
+            // Again after commit, in case a reader cached the pre-commit stock
+            productService.invalidateStock(quantities.keySet());
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error reserving stock for " + quantities, e);
+            throw new RuntimeException("Failed to reserve stock", e);
+        }
+    }
+
+    /**
+     * Reserve stock inside the caller's transaction.
+     * On shortage the caller must roll back; the exception says which lines were short.
+     */
+    public void reserve(Connection conn, Map<Long, Integer> quantities) throws SQLException {
+        validate(quantities);
+
+        int updated = stockDao.decrementIfAvailable(conn, quantities);
+        if (updated != quantities.size()) {
+            throw new InsufficientStockException(findShortages(conn, quantities));
+        }
+
+        productService.invalidateStock(quantities.keySet());
+        LOGGER.fine("Reserved stock for " + quantities.size() + " products");
+    }
+
+    /**
+     * Give stock back, e.g. when an order is cancelled.
+     */
+    public void release(Map<Long, Integer> quantities) {
+        validate(quantities);
+        try {
+            transactions.execute(conn -> {
+                stockDao.increment(conn, quantities);
+                return null;
+            });
+            productService.invalidateStock(quantities.keySet());
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error releasing stock for " + quantities, e);
+            throw new RuntimeException("Failed to release stock", e);
+        }
+    }
+
+    private Map<Long, Integer> findShortages(Connection conn, Map<Long, Integer> quantities) throws SQLException {
+        Map<Long, Integer> stock = stockDao.findStock(conn, quantities.keySet());
+        Map<Long, Integer> shortages = new HashMap<>();
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            int available = stock.getOrDefault(line.getKey(), 0);
+            if (available < line.getValue()) {
+                shortages.put(line.getKey(), available);
+            }
+        }
+        return shortages;
+    }
+
+    private static void validate(Map<Long, Integer> quantities) {
+        if (quantities == null || quantities.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to reserve");
+        }
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            if (line.getValue() == null || line.getValue() <= 0) {
+                throw new IllegalArgumentException("Invalid quantity for product " + line.getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.minishop.service;
+
+import com.minishop.config.AppConstants;
+import com.minishop.config.AppContext;
+import com.minishop.model.User;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.function.LongFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Signed authentication tokens.
+ * A token carries the user ID, the user's token version and an expiry,
+ * signed with HMAC-SHA256, so a request can be authenticated from the
+ * cookie without any server-side session.
+ * Each check compares the version with the stored user's (through a short
+ * cache, see UserCache): logging out, or a role or password change, bumps
+ * the stored version and revokes every token issued before. The role and
+ * name come from the stored user, never from the token.
+ *
+ * Format: base64url(payload) "." base64url(signature)
+ */
+public class TokenService {
+
+    private static final Logger LOGGER = Logger.getLogger(TokenService.class.getName());
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte FORMAT_VERSION = 2;
+
+    // Far above any real token; rejects junk before it is decoded
+    private static final int MAX_TOKEN_LENGTH = 512;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    // Current state of a user by ID, null if the account is gone
+    private final LongFunction<User> users;
+    // Initialised once and cloned per call: Mac instances are not thread-safe
+    private final Mac prototype;
+
+    /**
+     * @param secret signing key; every node must share the same one
+     * @param users  looks up the stored user a token was issued to
+     */
+    public TokenService(byte[] secret, LongFunction<User> users) {
+        if (secret == null || secret.length < 32) {
+            throw new IllegalArgumentException("Token secret must be at least 32 bytes");
+        }
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.users = users;
+        this.prototype = newMac();
+    }
+
+    /**
+     * Build from the configured secret.
+     * Only in development mode may the secret be missing: a random one is
+     * used then, which logs everyone out on restart and is not shared between nodes.
+     *
+     * @throws IllegalStateException if no secret is configured outside development mode
+     */
+    public static TokenService fromSecret(String secret, boolean devMode, LongFunction<User> users) {
+        if (secret == null || secret.isBlank()) {
+            if (!devMode) {
+                throw new IllegalStateException("No token secret configured: set -D"
+                    + AppConstants.AUTH_TOKEN_SECRET_PROPERTY + " (the same on every node)");
+            }
+            LOGGER.warning("Development mode without a token secret: remember-me tokens will not survive a restart");
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            return new TokenService(random, users);
+        }
+        return new TokenService(secret.getBytes(StandardCharsets.UTF_8), users);
+    }
+
+    /**
+     * Get the instance built at deploy time (see AppContext)
+     */
+    public static TokenService getInstance() {
+        return AppContext.get().getTokenService();
+    }
+
+    /**
+     * Issue a token for a user.
+     *
+     * @param user       the authenticated user
+     * @param ttlSeconds validity from now
+     * @return the token, safe to use as a cookie value
+     */
+    public String issue(User user, long ttlSeconds) {
+        long expiresAt = System.currentTimeMillis() / 1000 + ttlSeconds;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(user.getId());
+            out.writeLong(expiresAt);
+            out.writeInt(user.getTokenVersion());
+        } catch (IOException e) {
+            // Not thrown by an in-memory stream
+            throw new IllegalStateException(e);
+        }
+        byte[] payload = bytes.toByteArray();
+
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /**
+     * Check a token's signature, expiry and version.
+     *
+     * @param token the token from the cookie
+     * @return the stored user, or null if the token is invalid, expired or revoked
+     */
+    public User verify(String token) {
+        if (token == null || token.length() > MAX_TOKEN_LENGTH) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(signature, sign(payload))) {
+            return null;
+        }
+
+        long id;
+        int version;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            // Tokens of an older format are simply no longer accepted
+            if (in.readByte() != FORMAT_VERSION) {
+                return null;
+            }
+            id = in.readLong();
+            long expiresAt = in.readLong();
+            if (expiresAt < System.currentTimeMillis() / 1000) {
+                return null;
+            }
+            version = in.readInt();
+        } catch (IOException e) {
+            // Signed by us, so only possible after a format change
+            return null;
+        }
+
+        User user;
+        try {
+            user = users.apply(id);
+        } catch (RuntimeException e) {
+            // Database unavailable: treat the request as anonymous rather than fail it
+            LOGGER.log(Level.WARNING, "Could not check token of user #" + id, e);
+            return null;
+        }
+        return user != null && user.getTokenVersion() == version ? user : null;
+    }
+
+    private byte[] sign(byte[] payload) {
+        Mac mac;
+        try {
+            mac = (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            mac = newMac();
+        }
+        return mac.doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.minishop.service;
+
+import com.minishop.model.User;
+import com.minishop.util.CacheStats;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * Read-through cache of users by email for the login path.
+ * Unknown emails are cached too (negative entries, with a shorter TTL), so
+ * repeated attempts against addresses that do not exist stay in memory.
+ * The two kinds are bounded separately: a flood of random emails can only
+ * push out other negative entries, never known users.
+ *
+ * Users are also cached by ID, with a shorter TTL, to check remember-me
+ * tokens against the stored token version and role on every request.
+ *
+ * Users are stored and returned as copies, so a caller changing the object
+ * it got never changes what the cache serves; whoever writes a user to the
+ * database calls invalidate().
+ */
+public class UserCache {
+
+    private final long ttlMs;
+    private final long negativeTtlMs;
+    private final long idTtlMs;
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<String, Entry> users = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> unknown = new ConcurrentHashMap<>();
+
+    // Bumped by every invalidation so a load racing with a write is not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param idTtlMs TTL of lookups by ID; bounds how long another node accepts a revoked token
+     */
+    public UserCache(long ttlMs, long negativeTtlMs, long idTtlMs, int maxEntries) {
+        this.ttlMs = ttlMs;
+        this.negativeTtlMs = negativeTtlMs;
+        this.idTtlMs = idTtlMs;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Get a user by normalised email, calling the loader on a miss.
+     *
+     * @return the user, or null if no user has this email
+     */
+    public User get(String email, Function<String, User> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = users.get(email);
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            return copy(entry.user);
+        }
+        Long unknownUntil = unknown.get(email);
+        if (unknownUntil != null && unknownUntil > now) {
+            negativeHits.increment();
+            return null;
+        }
+
+        misses.increment();
+        long gen = generation.get();
+        long start = System.nanoTime();
+        User user = loader.apply(email);
+        loads.increment();
+        loadNanos.add(System.nanoTime() - start);
+
+        if (gen == generation.get()) {
+            if (user != null) {
+                putUser(email, user, now);
+            } else {
+                putUnknown(email, now);
+            }
+        }
+        return user;
+    }
+
+    /**
+     * Get a user by ID, calling the loader on a miss. Unknown IDs are not cached.
+     *
+     * @return the user, or null if no user has this ID
+     */
+    public User getById(long id, LongFunction<User> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = byId.get(id);
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            return copy(entry.user);
+        }
+
+        misses.increment();
+        long gen = generation.get();
+        long start = System.nanoTime();
+        User user = loader.apply(id);
+        loads.increment();
+        loadNanos.add(System.nanoTime() - start);
+
+        if (user != null && gen == generation.get()) {
+            if (byId.size() >= maxEntries && !byId.containsKey(id)) {
+                evict(byId, now);
+            }
+            byId.put(id, new Entry(copy(user), now + idTtlMs));
+        }
+        return user;
+    }
+
+    /**
+     * Drop any entry for an email (after the user was created or changed).
+     */
+    public void invalidate(String email) {
+        generation.incrementAndGet();
+        Entry entry = users.remove(email);
+        unknown.remove(email);
+        if (entry != null) {
+            byId.remove(entry.user.getId());
+        }
+    }
+
+    /**
+     * Drop every entry for a user (after the user was changed or deleted).
+     * Scans the email entries, which is fine for occasional writes such as a logout.
+     */
+    public void invalidate(long id) {
+        generation.incrementAndGet();
+        byId.remove(id);
+        users.values().removeIf(entry -> entry.user.getId() == id);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        users.clear();
+        byId.clear();
+        unknown.clear();
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum() + negativeHits.sum(), misses.sum(), loads.sum(), loadNanos.sum(),
+            evictions.sum(), users.size() + byId.size() + unknown.size());
+    }
+
+    /**
+     * Lookups answered from a negative entry, i.e. unknown emails that did not reach the database.
+     */
+    public long getNegativeHits() {
+        return negativeHits.sum();
+    }
+
+    public int getNegativeSize() {
+        return unknown.size();
+    }
+
+    private void putUser(String email, User user, long now) {
+        if (users.size() >= maxEntries && !users.containsKey(email)) {
+            evict(users, now);
+        }
+        users.put(email, new Entry(copy(user), now + ttlMs));
+        unknown.remove(email);
+    }
+
+    private static User copy(User user) {
+        User copy = new User(user.getEmail(), user.getPasswordHash(), user.getFullName(), user.getRole());
+        copy.setId(user.getId());
+        copy.setTokenVersion(user.getTokenVersion());
+        return copy;
+    }
+
+    private void putUnknown(String email, long now) {
+        if (unknown.size() >= maxEntries) {
+            // Under a flood of random emails: sweep the expired ones, else start over
+            unknown.values().removeIf(until -> until <= now);
+            if (unknown.size() >= maxEntries) {
+                evictions.add(unknown.size());
+                unknown.clear();
+            }
+        }
+        unknown.put(email, now + negativeTtlMs);
+    }
+
+    /**
+     * Make room by dropping expired users, or the one closest to expiry.
+     * Only runs when the cache is full, so the linear scan is acceptable.
+     */
+    private <K> void evict(ConcurrentHashMap<K, Entry> map, long now) {
+        K oldest = null;
+        long oldestExpiry = Long.MAX_VALUE;
+        for (Map.Entry<K, Entry> e : map.entrySet()) {
+            long expiresAt = e.getValue().expiresAt;
+            if (expiresAt <= now) {
+                if (map.remove(e.getKey(), e.getValue())) {
+                    evictions.increment();
+                }
+            } else if (expiresAt < oldestExpiry) {
+                oldestExpiry = expiresAt;
+                oldest = e.getKey();
+            }
+        }
+        if (map.size() >= maxEntries && oldest != null && map.remove(oldest) != null) {
+            evictions.increment();
+        }
+    }
+
+    private static final class Entry {
+        private final User user;
+        private final long expiresAt;
+
+        private Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
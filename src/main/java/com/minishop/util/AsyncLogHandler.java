@@ -0,0 +1,157 @@
+package com.minishop.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * java.util.logging handler that hands records to a background thread.
+ * Request threads only append to a bounded ring buffer; the thread writes
+ * them to the original handlers in batches. When the buffer is full, records
+ * below WARNING are dropped (and counted) rather than making the request
+ * wait, while warnings and errors are written synchronously.
+ */
+public class AsyncLogHandler extends Handler {
+
+    private static final int BATCH_SIZE = 256;
+
+    private final Handler[] delegates;
+    private final BlockingQueue<LogRecord> buffer;
+    private final Thread writer;
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean running = true;
+
+    public AsyncLogHandler(Handler[] delegates, int capacity) {
+        this.delegates = delegates.clone();
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::drainLoop, "minishop-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Route a logger's output through an async handler, in place of the
+     * handlers it inherited from its parents.
+     *
+     * @param loggerName logger to take over, e.g. "com.minishop"
+     * @param capacity   number of records the buffer holds
+     * @return the installed handler, to pass to {@link #uninstall}
+     */
+    public static AsyncLogHandler install(String loggerName, int capacity) {
+        Logger logger = Logger.getLogger(loggerName);
+        List<Handler> inherited = new ArrayList<>();
+        for (Logger parent = logger.getParent(); parent != null; parent = parent.getParent()) {
+            inherited.addAll(List.of(parent.getHandlers()));
+            if (!parent.getUseParentHandlers()) {
+                break;
+            }
+        }
+        AsyncLogHandler handler = new AsyncLogHandler(inherited.toArray(new Handler[0]), capacity);
+        logger.addHandler(handler);
+        logger.setUseParentHandlers(false);
+        return handler;
+    }
+
+    /**
+     * Restore the logger's inherited handlers and flush what is left.
+     */
+    public static void uninstall(String loggerName, AsyncLogHandler handler) {
+        Logger logger = Logger.getLogger(loggerName);
+        logger.setUseParentHandlers(true);
+        logger.removeHandler(handler);
+        handler.close();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (!isLoggable(record)) {
+            return;
+        }
+        if (running && buffer.offer(record)) {
+            return;
+        }
+        if (record.getLevel().intValue() >= Level.WARNING.intValue()) {
+            write(record);
+        } else {
+            dropped.increment();
+        }
+    }
+
+    private void drainLoop() {
+        List<LogRecord> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !buffer.isEmpty()) {
+            try {
+                LogRecord first = buffer.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, BATCH_SIZE - 1);
+                for (LogRecord record : batch) {
+                    write(record);
+                }
+                batch.clear();
+                flushDelegates();
+            } catch (InterruptedException e) {
+                // close() interrupts only after running is cleared; drain what is left
+                Thread.interrupted();
+            }
+        }
+    }
+
+    private void write(LogRecord record) {
+        for (Handler delegate : delegates) {
+            try {
+                delegate.publish(record);
+            } catch (RuntimeException e) {
+                reportError("Log handler failed", e, ErrorManager.WRITE_FAILURE);
+            }
+        }
+    }
+
+    private void flushDelegates() {
+        for (Handler delegate : delegates) {
+            delegate.flush();
+        }
+    }
+
+    @Override
+    public void flush() {
+        flushDelegates();
+    }
+
+    /**
+     * Stop the writer thread after it has written the buffered records.
+     * The delegates belong to the parent loggers and are left open.
+     */
+    @Override
+    public void close() {
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushDelegates();
+    }
+
+    /**
+     * Records dropped because the buffer was full.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public int getBufferedCount() {
+        return buffer.size();
+    }
+}
@@ -0,0 +1,72 @@
+package com.minishop.util;
+
+/**
+ * Immutable snapshot of a cache's counters.
+ */
+public final class CacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long loads;
+    private final long totalLoadNanos;
+    private final long evictions;
+    private final int size;
+
+    public CacheStats(long hits, long misses, long loads, long totalLoadNanos, long evictions, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.loads = loads;
+        this.totalLoadNanos = totalLoadNanos;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getLoads() {
+        return loads;
+    }
+
+    public long getTotalLoadNanos() {
+        return totalLoadNanos;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Fraction of lookups served from memory, between 0 and 1.
+     */
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    public double getAverageLoadMillis() {
+        return loads == 0 ? 0.0 : totalLoadNanos / 1_000_000.0 / loads;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", hitRatio=" + String.format("%.3f", getHitRatio()) +
+                ", loads=" + loads +
+                ", avgLoadMs=" + String.format("%.3f", getAverageLoadMillis()) +
+                ", evictions=" + evictions +
+                ", size=" + size +
+                '}';
+    }
+}
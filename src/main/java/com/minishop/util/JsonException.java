@@ -0,0 +1,13 @@
+package com.minishop.util;
+
+import java.io.IOException;
+
+/**
+ * Malformed or oversized JSON input.
+ */
+public class JsonException extends IOException {
+
+    public JsonException(String message) {
+        super(message);
+    }
+}
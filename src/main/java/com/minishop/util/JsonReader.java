@@ -0,0 +1,390 @@
+package com.minishop.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Minimal pull-style JSON reader.
+ * Reads straight from a {@link Reader} through a small fixed buffer, without
+ * materialising the document; numbers are parsed in place and only names and
+ * string values become Strings. Input beyond {@code maxChars} or nested deeper
+ * than {@link #MAX_DEPTH} is rejected.
+ *
+ * Usage mirrors the document structure:
+ * beginArray(), while (hasNext()) { beginObject(); ... endObject(); }, endArray().
+ */
+public class JsonReader implements Closeable {
+
+    public static final int MAX_DEPTH = 32;
+
+    // Scope of each open container
+    private static final byte EMPTY_ARRAY = 1;
+    private static final byte NONEMPTY_ARRAY = 2;
+    private static final byte EMPTY_OBJECT = 3;
+    private static final byte DANGLING_NAME = 4;
+    private static final byte NONEMPTY_OBJECT = 5;
+
+    private final Reader in;
+    private final long maxChars;
+    private final char[] buffer = new char[1024];
+    private int pos;
+    private int limit;
+    private long consumed;
+
+    private final byte[] stack = new byte[MAX_DEPTH];
+    private int depth;
+    private boolean topLevelRead;
+
+    private final StringBuilder scratch = new StringBuilder();
+
+    public JsonReader(Reader in, long maxChars) {
+        this.in = in;
+        this.maxChars = maxChars;
+    }
+
+    public void beginArray() throws IOException {
+        beforeValue();
+        expect('[');
+        push(EMPTY_ARRAY);
+    }
+
+    public void endArray() throws IOException {
+        byte scope = top();
+        if (scope != EMPTY_ARRAY && scope != NONEMPTY_ARRAY) {
+            throw error("Unexpected end of array");
+        }
+        expect(']');
+        depth--;
+    }
+
+    public void beginObject() throws IOException {
+        beforeValue();
+        expect('{');
+        push(EMPTY_OBJECT);
+    }
+
+    public void endObject() throws IOException {
+        byte scope = top();
+        if (scope != EMPTY_OBJECT && scope != NONEMPTY_OBJECT) {
+            throw error("Unexpected end of object");
+        }
+        expect('}');
+        depth--;
+    }
+
+    /**
+     * Whether the current array or object has another element.
+     */
+    public boolean hasNext() throws IOException {
+        int c = peekNonWhitespace();
+        return c != ']' && c != '}' && c != -1;
+    }
+
+    /**
+     * Read the next property name of the current object.
+     */
+    public String nextName() throws IOException {
+        byte scope = top();
+        if (scope == NONEMPTY_OBJECT) {
+            expect(',');
+        } else if (scope != EMPTY_OBJECT) {
+            throw error("Expected a value, not a name");
+        }
+        expect('"');
+        String name = readString();
+        expect(':');
+        stack[depth - 1] = DANGLING_NAME;
+        return name;
+    }
+
+    /**
+     * Read an integral number. A quoted number ("12") is accepted too,
+     * since browsers serialise some form values as strings.
+     */
+    public long nextLong() throws IOException {
+        beforeValue();
+        int c = peekNonWhitespace();
+        boolean quoted = c == '"';
+        if (quoted) {
+            pos++;
+        }
+
+        boolean negative = false;
+        if (peek() == '-') {
+            negative = true;
+            pos++;
+        }
+
+        long value = 0;
+        int digits = 0;
+        while (true) {
+            c = peek();
+            if (c < '0' || c > '9') {
+                break;
+            }
+            pos++;
+            if (value > (Long.MAX_VALUE - (c - '0')) / 10) {
+                throw error("Number too large");
+            }
+            value = value * 10 + (c - '0');
+            digits++;
+        }
+        if (digits == 0) {
+            throw error("Expected a number");
+        }
+        if (c == '.' || c == 'e' || c == 'E') {
+            throw error("Expected an integer");
+        }
+        if (quoted) {
+            expect('"');
+        }
+        return negative ? -value : value;
+    }
+
+    public int nextInt() throws IOException {
+        long value = nextLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw error("Number out of int range");
+        }
+        return (int) value;
+    }
+
+    public String nextString() throws IOException {
+        beforeValue();
+        expect('"');
+        return readString();
+    }
+
+    /**
+     * Skip the next value, whatever its type, including nested containers.
+     */
+    public void skipValue() throws IOException {
+        beforeValue();
+        int nesting = 0;
+        do {
+            int c = peekNonWhitespace();
+            switch (c) {
+                case '[':
+                case '{':
+                    pos++;
+                    if (depth + ++nesting > MAX_DEPTH) {
+                        throw error("Nesting too deep");
+                    }
+                    break;
+                case ']':
+                case '}':
+                    pos++;
+                    nesting--;
+                    break;
+                case '"':
+                    pos++;
+                    skipString();
+                    break;
+                case ',':
+                case ':':
+                    if (nesting == 0) {
+                        throw error("Unexpected '" + (char) c + "'");
+                    }
+                    pos++;
+                    break;
+                case -1:
+                    throw error("Unexpected end of input");
+                default:
+                    skipLiteral();
+            }
+        } while (nesting > 0);
+    }
+
+    /**
+     * Fail unless only whitespace remains.
+     */
+    public void endDocument() throws IOException {
+        if (depth != 0 || peekNonWhitespace() != -1) {
+            throw error("Unexpected content after JSON document");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void beforeValue() throws IOException {
+        if (depth == 0) {
+            if (topLevelRead) {
+                throw error("Multiple top-level values");
+            }
+            topLevelRead = true;
+            return;
+        }
+        switch (stack[depth - 1]) {
+            case EMPTY_ARRAY:
+                stack[depth - 1] = NONEMPTY_ARRAY;
+                break;
+            case NONEMPTY_ARRAY:
+                expect(',');
+                break;
+            case DANGLING_NAME:
+                stack[depth - 1] = NONEMPTY_OBJECT;
+                break;
+            default:
+                throw error("Expected a property name");
+        }
+    }
+
+    private void push(byte scope) throws JsonException {
+        if (depth == MAX_DEPTH) {
+            throw error("Nesting too deep");
+        }
+        stack[depth++] = scope;
+    }
+
+    private byte top() throws JsonException {
+        if (depth == 0) {
+            throw error("Not inside an array or object");
+        }
+        return stack[depth - 1];
+    }
+
+    private void expect(char expected) throws IOException {
+        int c = peekNonWhitespace();
+        if (c != expected) {
+            throw error(c == -1
+                ? "Unexpected end of input, expected '" + expected + "'"
+                : "Expected '" + expected + "' but found '" + (char) c + "'");
+        }
+        pos++;
+    }
+
+    /**
+     * Read a string body; the opening quote is already consumed.
+     */
+    private String readString() throws IOException {
+        scratch.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return scratch.toString();
+            }
+            if (c == '\\') {
+                scratch.append(readEscape());
+            } else if (c == -1) {
+                throw error("Unterminated string");
+            } else if (c < 0x20) {
+                throw error("Control character in string");
+            } else {
+                scratch.append((char) c);
+            }
+        }
+    }
+
+    private void skipString() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                readEscape();
+            } else if (c == -1) {
+                throw error("Unterminated string");
+            }
+        }
+    }
+
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) {
+                        throw error("Invalid unicode escape");
+                    }
+                    value = (value << 4) | digit;
+                }
+                return (char) value;
+            default:
+                throw error("Invalid escape sequence");
+        }
+    }
+
+    /**
+     * Skip a number, true, false or null.
+     */
+    private void skipLiteral() throws IOException {
+        int length = 0;
+        while (true) {
+            int c = peek();
+            boolean literalChar = (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z')
+                || c == '-' || c == '+' || c == '.' || c == 'E';
+            if (!literalChar) {
+                break;
+            }
+            pos++;
+            length++;
+        }
+        if (length == 0) {
+            throw error("Unexpected character");
+        }
+    }
+
+    private int peekNonWhitespace() throws IOException {
+        while (true) {
+            int c = peek();
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                pos++;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos];
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos++];
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        consumed += n;
+        if (consumed > maxChars) {
+            throw new JsonException("JSON body exceeds " + maxChars + " characters");
+        }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    private JsonException error(String message) {
+        return new JsonException(message + " at character " + (consumed - limit + pos));
+    }
+}
@@ -0,0 +1,125 @@
+package com.minishop.util;
+
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Thin logging facade over java.util.logging for hot paths.
+ * Messages are patterns with {0}, {1}... placeholders, formatted only if a
+ * handler actually writes the record (possibly later, on the AsyncLogHandler
+ * thread), and nothing is built when the level is disabled. The source class
+ * is set explicitly, so JUL never walks the stack to find the caller.
+ *
+ * Pass immutable arguments (numbers, strings, ids): formatting may happen
+ * after the call returns. Patterns go through MessageFormat, so a literal
+ * apostrophe must be doubled.
+ */
+public final class Log {
+
+    private final Logger logger;
+    private final String name;
+
+    private Log(String name) {
+        this.logger = Logger.getLogger(name);
+        this.name = name;
+    }
+
+    public static Log get(Class<?> type) {
+        return new Log(type.getName());
+    }
+
+    public boolean isLoggable(Level level) {
+        return logger.isLoggable(level);
+    }
+
+    public void severe(String message) {
+        log(Level.SEVERE, message, null, null);
+    }
+
+    public void warning(String message) {
+        log(Level.WARNING, message, null, null);
+    }
+
+    public void warning(String pattern, Object arg) {
+        if (logger.isLoggable(Level.WARNING)) {
+            log(Level.WARNING, pattern, null, new Object[] {arg});
+        }
+    }
+
+    public void warning(String pattern, Object arg1, Object arg2) {
+        if (logger.isLoggable(Level.WARNING)) {
+            log(Level.WARNING, pattern, null, new Object[] {arg1, arg2});
+        }
+    }
+
+    public void warning(String pattern, Object... args) {
+        if (logger.isLoggable(Level.WARNING)) {
+            log(Level.WARNING, pattern, null, args);
+        }
+    }
+
+    public void info(String message) {
+        log(Level.INFO, message, null, null);
+    }
+
+    public void info(String pattern, Object arg) {
+        if (logger.isLoggable(Level.INFO)) {
+            log(Level.INFO, pattern, null, new Object[] {arg});
+        }
+    }
+
+    public void info(String pattern, Object arg1, Object arg2) {
+        if (logger.isLoggable(Level.INFO)) {
+            log(Level.INFO, pattern, null, new Object[] {arg1, arg2});
+        }
+    }
+
+    public void info(String pattern, Object... args) {
+        if (logger.isLoggable(Level.INFO)) {
+            log(Level.INFO, pattern, null, args);
+        }
+    }
+
+    public void fine(String message) {
+        log(Level.FINE, message, null, null);
+    }
+
+    public void fine(String pattern, Object arg) {
+        if (logger.isLoggable(Level.FINE)) {
+            log(Level.FINE, pattern, null, new Object[] {arg});
+        }
+    }
+
+    public void fine(String pattern, Object arg1, Object arg2) {
+        if (logger.isLoggable(Level.FINE)) {
+            log(Level.FINE, pattern, null, new Object[] {arg1, arg2});
+        }
+    }
+
+    public void fine(String pattern, Object... args) {
+        if (logger.isLoggable(Level.FINE)) {
+            log(Level.FINE, pattern, null, args);
+        }
+    }
+
+    /**
+     * Same signature as Logger.log(Level, String, Throwable).
+     */
+    public void log(Level level, String message, Throwable thrown) {
+        log(level, message, thrown, null);
+    }
+
+    private void log(Level level, String message, Throwable thrown, Object[] params) {
+        if (!logger.isLoggable(level)) {
+            return;
+        }
+        LogRecord record = new LogRecord(level, message);
+        record.setLoggerName(name);
+        // Known source: JUL would otherwise infer it from the stack, on whichever thread asks
+        record.setSourceClassName(name);
+        record.setParameters(params);
+        record.setThrown(thrown);
+        logger.log(record);
+    }
+}
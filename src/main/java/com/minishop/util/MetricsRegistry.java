@@ -0,0 +1,228 @@
+package com.minishop.util;
+
+import com.minishop.config.AppConstants;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Application-wide metrics: counters, latency histograms and gauges, each
+ * optionally split by one label (route, SQL statement...).
+ * Recording is lock-free (LongAdder, LatencyHistogram); only the first use of
+ * a new label value allocates. Rendered in the Prometheus text format, with
+ * histograms as summaries in seconds.
+ *
+ * Summary quantiles (p50/p95/p99) cover a rolling window: the values
+ * recorded since the snapshot taken one to two METRICS_QUANTILE_WINDOW_MS
+ * ago, so a regression shows up within minutes however long the server has
+ * been up. _sum and _count stay cumulative, as Prometheus expects.
+ */
+public final class MetricsRegistry {
+
+    // Label values beyond this per metric are folded into OVERFLOW_LABEL
+    private static final int MAX_LABEL_VALUES = 500;
+    private static final String OVERFLOW_LABEL = "other";
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final ConcurrentHashMap<String, Family<LatencyHistogram>> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Family<LongAdder>> counters = new ConcurrentHashMap<>();
+    // Scrape-time values, gauges and counters alike
+    private final ConcurrentHashMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+    // Quantile windows per series, only touched while rendering under scrapeLock
+    private final Map<String, Window> windows = new HashMap<>();
+    private final ReentrantLock scrapeLock = new ReentrantLock();
+
+    private MetricsRegistry() {
+    }
+
+    public static MetricsRegistry get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Histogram of microsecond latencies for one label value, created on first use.
+     */
+    public LatencyHistogram histogram(String name, String help, String labelName, String labelValue) {
+        return histograms.computeIfAbsent(name, n -> new Family<>(help, labelName))
+            .get(labelValue, LatencyHistogram::new);
+    }
+
+    /**
+     * Expose a histogram owned by another component, without labels.
+     */
+    public void register(String name, String help, LatencyHistogram histogram) {
+        Family<LatencyHistogram> family = new Family<>(help, null);
+        family.values.put("", histogram);
+        histograms.put(name, family);
+    }
+
+    public LongAdder counter(String name, String help, String labelName, String labelValue) {
+        return counters.computeIfAbsent(name, n -> new Family<>(help, labelName))
+            .get(labelValue, LongAdder::new);
+    }
+
+    /**
+     * Register a value read at scrape time. Registering a name again replaces it.
+     */
+    public void gauge(String name, String help, DoubleSupplier value) {
+        gauges.put(name, new Gauge(help, "gauge", value));
+    }
+
+    /**
+     * Register a running total kept by another component, read at scrape time.
+     */
+    public void counter(String name, String help, LongSupplier value) {
+        gauges.put(name, new Gauge(help, "counter", value::getAsLong));
+    }
+
+    /**
+     * Write every metric in the Prometheus text exposition format (version 0.0.4).
+     */
+    public void writePrometheus(Writer out) throws IOException {
+        scrapeLock.lock();
+        try {
+            write(out, System.currentTimeMillis());
+        } finally {
+            scrapeLock.unlock();
+        }
+    }
+
+    private void write(Writer out, long now) throws IOException {
+        for (Map.Entry<String, Family<LatencyHistogram>> e : new TreeMap<>(histograms).entrySet()) {
+            String name = e.getKey() + "_seconds";
+            Family<LatencyHistogram> family = e.getValue();
+            writeHeader(out, name, family.help, "summary");
+            for (Map.Entry<String, LatencyHistogram> v : new TreeMap<>(family.values).entrySet()) {
+                LatencyHistogram h = v.getValue();
+                String labels = labels(family.labelName, v.getKey());
+                long[] recent = window(e.getKey() + "{" + labels + "}", h, now);
+                for (double q : QUANTILES) {
+                    out.write(name + "{" + labels + (labels.isEmpty() ? "" : ",") + "quantile=\"" + q + "\"} "
+                              + seconds(LatencyHistogram.percentileOf(recent, q * 100)) + "\n");
+                }
+                String braces = labels.isEmpty() ? "" : "{" + labels + "}";
+                out.write(name + "_sum" + braces + " " + seconds(h.getSum()) + "\n");
+                out.write(name + "_count" + braces + " " + h.getCount() + "\n");
+            }
+        }
+        for (Map.Entry<String, Family<LongAdder>> e : new TreeMap<>(counters).entrySet()) {
+            Family<LongAdder> family = e.getValue();
+            writeHeader(out, e.getKey(), family.help, "counter");
+            for (Map.Entry<String, LongAdder> v : new TreeMap<>(family.values).entrySet()) {
+                String labels = labels(family.labelName, v.getKey());
+                out.write(e.getKey() + (labels.isEmpty() ? "" : "{" + labels + "}") + " " + v.getValue().sum() + "\n");
+            }
+        }
+        for (Map.Entry<String, Gauge> e : new TreeMap<>(gauges).entrySet()) {
+            writeHeader(out, e.getKey(), e.getValue().help, e.getValue().type);
+            out.write(e.getKey() + " " + e.getValue().value.getAsDouble() + "\n");
+        }
+    }
+
+    /**
+     * Bucket counts recorded since the start of the previous window,
+     * rotating the windows when the current one is over.
+     */
+    private long[] window(String series, LatencyHistogram histogram, long now) {
+        long[] counts = histogram.snapshot();
+        Window window = windows.get(series);
+        if (window == null || window.histogram != histogram) {
+            // New series, or a component re-registered its histogram: start from zero
+            window = new Window(histogram, new long[counts.length], now);
+            windows.put(series, window);
+        }
+        if (now - window.currentStart >= AppConstants.METRICS_QUANTILE_WINDOW_MS) {
+            window.previous = window.current;
+            window.current = counts;
+            window.currentStart = now;
+        }
+        long[] recent = new long[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            recent[i] = counts[i] - window.previous[i];
+        }
+        return recent;
+    }
+
+    private static void writeHeader(Writer out, String name, String help, String type) throws IOException {
+        out.write("# HELP " + name + " " + help + "\n");
+        out.write("# TYPE " + name + " " + type + "\n");
+    }
+
+    private static String labels(String labelName, String value) {
+        if (labelName == null) {
+            return "";
+        }
+        return labelName + "=\"" + escape(value) + "\"";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static double seconds(long micros) {
+        return micros / 1_000_000.0;
+    }
+
+    private static final class Family<T> {
+        private final String help;
+        private final String labelName;
+        private final ConcurrentHashMap<String, T> values = new ConcurrentHashMap<>();
+
+        private Family(String help, String labelName) {
+            this.help = help;
+            this.labelName = labelName;
+        }
+
+        private T get(String labelValue, Supplier<T> factory) {
+            T value = values.get(labelValue);
+            if (value != null) {
+                return value;
+            }
+            // Cap the number of series so an unbounded label cannot exhaust memory
+            String key = values.size() < MAX_LABEL_VALUES ? labelValue : OVERFLOW_LABEL;
+            return values.computeIfAbsent(key, k -> factory.get());
+        }
+    }
+
+    /**
+     * Snapshots at the start of the previous and current quantile windows.
+     */
+    private static final class Window {
+        private final LatencyHistogram histogram;
+        private long[] previous;
+        private long[] current;
+        private long currentStart;
+
+        private Window(LatencyHistogram histogram, long[] start, long now) {
+            this.histogram = histogram;
+            this.previous = start;
+            this.current = start;
+            this.currentStart = now;
+        }
+    }
+
+    private static final class Gauge {
+        private final String help;
+        private final String type;
+        private final DoubleSupplier value;
+
+        private Gauge(String help, String type, DoubleSupplier value) {
+            this.help = help;
+            this.type = type;
+            this.value = value;
+        }
+    }
+}
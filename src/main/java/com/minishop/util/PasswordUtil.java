@@ -1,44 +1,169 @@
 package com.minishop.util;
 
+import com.minishop.config.AppConstants;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Utility class for password hashing.
- * Uses SHA-256 as required by specification.
+ * New hashes use salted PBKDF2-HMAC-SHA256, stored as
+ * {@code pbkdf2$<iterations>$<salt>$<hash>} (Base64). Unsalted SHA-256 hex
+ * hashes from the original specification are still accepted so existing
+ * accounts can log in and be rehashed.
  */
 public class PasswordUtil {
 
     private static final Logger LOGGER = Logger.getLogger(PasswordUtil.class.getName());
 
+    private static final String PBKDF2_ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PBKDF2_PREFIX = "pbkdf2$";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // Looked up once; each call hashes with a clone, as MessageDigest is not thread-safe
+    private static final MessageDigest SHA256_PROTOTYPE = newSha256();
+
     private PasswordUtil() {
     }
 
     /**
-     * SHA-256 hash function.
+     * Hash a password for storage, with a new random salt and the current cost.
+     *
+     * @param password the plain password
+     * @return the encoded hash
+     */
+    public static String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        int iterations = AppConstants.PASSWORD_HASH_ITERATIONS;
+        byte[] hash = pbkdf2(password, salt, iterations);
+
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PBKDF2_PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    /**
+     * Check a password against a stored hash, in either format.
+     *
+     * @param password the plain password
+     * @param stored   the stored hash
+     * @return true if the password matches
+     */
+    public static boolean verify(String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+        if (!stored.startsWith(PBKDF2_PREFIX)) {
+            return constantTimeEquals(sha256(password), stored);
+        }
+
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            LOGGER.warning("Malformed password hash");
+            return false;
+        }
+        try {
+            int iterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return MessageDigest.isEqual(expected, pbkdf2(password, salt, iterations));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warning("Malformed password hash");
+            return false;
+        }
+    }
+
+    /**
+     * Whether a stored hash uses the legacy format or a lower cost than the current one.
+     */
+    public static boolean needsRehash(String stored) {
+        if (stored == null || !stored.startsWith(PBKDF2_PREFIX)) {
+            return true;
+        }
+        int end = stored.indexOf('$', PBKDF2_PREFIX.length());
+        try {
+            return Integer.parseInt(stored.substring(PBKDF2_PREFIX.length(), end)) < AppConstants.PASSWORD_HASH_ITERATIONS;
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(PBKDF2_ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            LOGGER.log(Level.SEVERE, "Error with PBKDF2 hashing", e);
+            throw new RuntimeException("Failed to hash input", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    /**
+     * Compare two strings in time that depends only on their length,
+     * so a mismatch position cannot be learned from response times.
+     *
+     * @return true if both are non-null and equal
+     */
+    public static boolean constantTimeEquals(String a, String b) {
+        if (a == null || b == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * SHA-256 hash function (legacy password format).
      *
      * @param input the input string to hash
      * @return hex-encoded SHA-256 hash
      */
     public static String sha256(String input) {
+        byte[] hash = sha256Digest().digest(input.getBytes(StandardCharsets.UTF_8));
+        return bytesToHex(hash);
+    }
+
+    private static MessageDigest sha256Digest() {
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
-            return bytesToHex(hash);
+            return (MessageDigest) SHA256_PROTOTYPE.clone();
+        } catch (CloneNotSupportedException e) {
+            return newSha256();
+        }
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException e) {
             LOGGER.log(Level.SEVERE, "Error with SHA-256 hashing", e);
             throw new RuntimeException("Failed to hash input", e);
         }
     }
 
-    private static String bytesToHex(byte[] bytes) {
-        StringBuilder result = new StringBuilder();
-        for (byte b : bytes) {
-            result.append(String.format("%02x", b));
+    /**
+     * Lower-case hex, through a lookup table into one char array.
+     */
+    public static String bytesToHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xff;
+            chars[i * 2] = HEX[b >>> 4];
+            chars[i * 2 + 1] = HEX[b & 0x0f];
         }
-        return result.toString();
+        return new String(chars);
     }
 }
@@ -0,0 +1,85 @@
+package com.minishop.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limiter with one bucket per key (client IP, user...).
+ * Each bucket is a single AtomicLong updated by CAS, in the "virtual
+ * scheduling" form of the token bucket (GCRA): it stores the time at which
+ * the bucket will be full again. No locks are taken and a bucket that has
+ * refilled holds no information, which is what makes idle eviction safe.
+ */
+public class RateLimiter {
+
+    private final int permits;
+    private final long periodNanos;
+    private final long intervalNanos;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param permits     requests allowed per period, also the burst size
+     * @param periodNanos length of the period
+     */
+    public RateLimiter(int permits, long periodNanos) {
+        if (permits <= 0 || periodNanos <= 0) {
+            throw new IllegalArgumentException("Permits and period must be positive");
+        }
+        this.permits = permits;
+        this.periodNanos = periodNanos;
+        this.intervalNanos = periodNanos / permits;
+    }
+
+    /**
+     * Take one token from a key's bucket.
+     *
+     * @return 0 if the request is allowed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            // Full from now on
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()));
+        }
+
+        long now = System.nanoTime();
+        while (true) {
+            long fullAt = bucket.get();
+            // nanoTime values are compared by difference, never directly
+            long next = (fullAt - now > 0 ? fullAt : now) + intervalNanos;
+            long excess = next - now - periodNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drop buckets that have refilled completely; they behave exactly like absent ones.
+     * A request racing with the removal may get one extra token, which is harmless.
+     *
+     * @return number of buckets removed
+     */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        return before - buckets.size();
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public long getPeriodNanos() {
+        return periodNanos;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,87 @@
+package com.minishop.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Text normalisation for search: lower-casing, accent folding and tokenising.
+ * "Élégant Café" and "elegant cafe" produce the same tokens.
+ */
+public final class TextNormalizer {
+
+    // Frequent French words that match nearly every product and carry no meaning
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "au", "aux", "avec", "ce", "ces", "d", "dans", "de", "des", "du", "en", "et",
+        "l", "la", "le", "les", "ou", "par", "pour", "sans", "sur", "un", "une"
+    );
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Lower-case the text and strip diacritics (é → e, ç → c, œ → oe).
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+
+        // Fast path: plain ASCII needs no decomposition
+        boolean ascii = true;
+        for (int i = 0; i < lower.length() && ascii; i++) {
+            ascii = lower.charAt(i) < 0x80;
+        }
+        if (ascii) {
+            return lower;
+        }
+
+        String decomposed = Normalizer.normalize(lower, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            switch (c) {
+                case 'œ':
+                    sb.append("oe");
+                    break;
+                case 'æ':
+                    sb.append("ae");
+                    break;
+                case 'ß':
+                    sb.append("ss");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Split text into folded search tokens, dropping stop words.
+     */
+    public static List<String> tokenize(String text) {
+        String folded = fold(text);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = folded.substring(start, i);
+                if (!STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -2,6 +2,8 @@ package com.minishop.web.filter;
 
 import com.minishop.config.AppConstants;
 import com.minishop.model.User;
+import com.minishop.service.AuthService;
+import com.minishop.util.Log;
 import jakarta.servlet.*;
 import jakarta.servlet.annotation.WebFilter;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,16 +11,17 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 
 import java.io.IOException;
-import java.util.logging.Logger;
 
 /**
  * Admin filter
  * Protects /admin/* routes - only allows ADMIN role users
+ * The role is re-read from the database on every request, so a demoted or
+ * deleted account loses access at once, whatever its session or token says
  */
-@WebFilter(filterName = "AdminFilter", urlPatterns = {"/admin/*"})
+@WebFilter(filterName = "AdminFilter", urlPatterns = {"/admin/*"}, asyncSupported = true)
 public class AdminFilter implements Filter {
 
-    private static final Logger LOGGER = Logger.getLogger(AdminFilter.class.getName());
+    private static final Log LOGGER = Log.get(AdminFilter.class);
 
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
@@ -36,33 +39,33 @@ public class AdminFilter implements Filter {
         String contextPath = request.getContextPath();
         String path = requestURI.substring(contextPath.length());
 
-        // Get session and check for authenticated user
-        HttpSession session = request.getSession(false);
-        User user = (session != null) ? (User) session.getAttribute(AppConstants.AUTH_USER) : null;
+        // Check for authenticated user (session or remember-me token)
+        User user = CurrentUser.resolve(request);
 
         // Check if user is authenticated
-        if (session == null || user == null) {
+        if (user == null) {
             // User not logged in - redirect to login page
-            LOGGER.warning("Unauthorized admin access attempt (not logged in) to: " + path);
-            session = request.getSession(true);
+            LOGGER.warning("Unauthorized admin access attempt (not logged in) to: {0}", path);
+            HttpSession session = request.getSession(true);
             session.setAttribute(AppConstants.SESSION_ERROR_MESSAGE,
                     "Vous devez être connecté pour accéder à cette page");
             response.sendRedirect(contextPath + AppConstants.SERVLET_LOGIN);
             return;
         }
 
-        // Check if user is admin
-        if (!"ADMIN".equalsIgnoreCase(user.getRole())) {
+        // Check if user is admin, as currently stored
+        User stored = AuthService.getInstance().loadUser(user.getId());
+        if (stored == null || !stored.isAdmin()) {
             // User is logged in but not admin - forbidden
-            LOGGER.warning("Forbidden admin access attempt by non-admin user: " + user.getEmail() + " to: " + path);
-            session.setAttribute(AppConstants.SESSION_ERROR_MESSAGE,
+            LOGGER.warning("Forbidden admin access attempt by non-admin user #{0,number,#} to: {1}", user.getId(), path);
+            request.getSession(true).setAttribute(AppConstants.SESSION_ERROR_MESSAGE,
                     "Accès refusé : vous devez être administrateur");
             response.sendRedirect(contextPath + AppConstants.SERVLET_HOME);
             return;
         }
 
         // User is admin, continue
-        LOGGER.info("Admin access granted to: " + user.getEmail() + " for: " + path);
+        LOGGER.fine("Admin access granted to user #{0,number,#} for: {1}", user.getId(), path);
         chain.doFilter(request, response);
     }
 
@@ -2,6 +2,7 @@ package com.minishop.web.filter;
 
 import com.minishop.config.AppConstants;
 import com.minishop.model.User;
+import com.minishop.util.Log;
 import jakarta.servlet.*;
 import jakarta.servlet.annotation.WebFilter;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,16 +10,17 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 
 import java.io.IOException;
-import java.util.logging.Logger;
 
 /**
  * Authentication filter
  * Protects /app/* routes - redirects to login if user is not authenticated
+ * A user known only from the remember-me token gets a regular session here,
+ * since the cart and flash messages are kept per session
  */
-@WebFilter(filterName = "AuthFilter", urlPatterns = {"/app/*"})
+@WebFilter(filterName = "AuthFilter", urlPatterns = {"/app/*"}, asyncSupported = true)
 public class AuthFilter implements Filter {
 
-    private static final Logger LOGGER = Logger.getLogger(AuthFilter.class.getName());
+    private static final Log LOGGER = Log.get(AuthFilter.class);
 
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
@@ -36,14 +38,13 @@ public class AuthFilter implements Filter {
         String contextPath = request.getContextPath();
         String path = requestURI.substring(contextPath.length());
 
-        // Get session and check for authenticated user
-        HttpSession session = request.getSession(false);
-        User user = (session != null) ? (User) session.getAttribute(AppConstants.AUTH_USER) : null;
+        // Check for authenticated user (session or remember-me token)
+        User user = CurrentUser.resolve(request);
 
         // Check if user is authenticated
-        if (session == null || user == null) {
+        if (user == null) {
             // User not logged in - redirect to login page
-            LOGGER.info("Unauthorized access attempt to: " + path);
+            LOGGER.info("Unauthorized access attempt to: {0}", path);
 
             // Store original URL for redirect after login
             String redirectUrl = path;
@@ -56,6 +57,12 @@ public class AuthFilter implements Filter {
             return;
         }
 
+        HttpSession session = request.getSession(false);
+        if (session == null || session.getAttribute(AppConstants.AUTH_USER) == null) {
+            // Authenticated by token: open a short session for the cart
+            request.getSession(true).setAttribute(AppConstants.AUTH_USER, user);
+        }
+
         // User is authenticated, continue
         chain.doFilter(request, response);
     }
@@ -0,0 +1,92 @@
+package com.minishop.web.filter;
+
+import com.minishop.config.AppConstants;
+import com.minishop.model.User;
+import com.minishop.service.TokenService;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * Resolves the authenticated user of a request
+ * From the session when one holds AUTH_USER, otherwise from the signed
+ * remember-me cookie. The result is kept as the AUTH_USER request
+ * attribute, which the JSPs read.
+ */
+public final class CurrentUser {
+
+    private CurrentUser() {
+    }
+
+    /**
+     * Get the authenticated user
+     *
+     * @param request the HTTP request
+     * @return the user, or null if the request is anonymous
+     */
+    public static User resolve(HttpServletRequest request) {
+        User user = (User) request.getAttribute(AppConstants.AUTH_USER);
+        if (user != null) {
+            return user;
+        }
+
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            user = (User) session.getAttribute(AppConstants.AUTH_USER);
+        }
+        if (user == null) {
+            String token = readCookie(request);
+            if (token != null) {
+                user = TokenService.getInstance().verify(token);
+            }
+        }
+
+        if (user != null) {
+            request.setAttribute(AppConstants.AUTH_USER, user);
+        }
+        return user;
+    }
+
+    /**
+     * Set the remember-me cookie for a user who just logged in
+     */
+    public static void remember(HttpServletRequest request, HttpServletResponse response, User user) {
+        String token = TokenService.getInstance().issue(user, AppConstants.REMEMBER_ME_MAX_AGE_SEC);
+        response.addCookie(newCookie(request, token, AppConstants.REMEMBER_ME_MAX_AGE_SEC));
+    }
+
+    /**
+     * Remove the remember-me cookie
+     */
+    public static void forget(HttpServletRequest request, HttpServletResponse response) {
+        request.removeAttribute(AppConstants.AUTH_USER);
+        if (readCookie(request) != null) {
+            response.addCookie(newCookie(request, "", 0));
+        }
+    }
+
+    private static String readCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (AppConstants.AUTH_TOKEN_COOKIE.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static Cookie newCookie(HttpServletRequest request, String value, int maxAge) {
+        Cookie cookie = new Cookie(AppConstants.AUTH_TOKEN_COOKIE, value);
+        String contextPath = request.getContextPath();
+        cookie.setPath(contextPath.isEmpty() ? "/" : contextPath);
+        cookie.setMaxAge(maxAge);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(request.isSecure());
+        cookie.setAttribute("SameSite", "Lax");
+        return cookie;
+    }
+}
@@ -12,7 +12,7 @@ import java.util.logging.Logger;
  * Encoding filter
  * Forces UTF-8 encoding for all requests and responses to handle accented characters properly
  */
-@WebFilter(filterName = "EncodingFilter", urlPatterns = {"/*"})
+@WebFilter(filterName = "EncodingFilter", urlPatterns = {"/*"}, asyncSupported = true)
 public class EncodingFilter implements Filter {
 
     private static final Logger LOGGER = Logger.getLogger(EncodingFilter.class.getName());
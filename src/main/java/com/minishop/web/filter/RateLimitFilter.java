@@ -0,0 +1,145 @@
+package com.minishop.web.filter;
+
+import com.minishop.config.AppConstants;
+import com.minishop.model.User;
+import com.minishop.util.MetricsRegistry;
+import com.minishop.util.RateLimiter;
+import jakarta.servlet.*;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Rate limit filter
+ * Limits POST requests on the login and cart endpoints per client: per user
+ * when logged in, per IP address otherwise. Over the limit, the request gets
+ * a 429 before any service work.
+ *
+ * Limits come from -Dminishop.rateLimits, in the form
+ * {@code /login=10/60,/app/cart/add=30/10} (path=requests/seconds),
+ * defaulting to AppConstants.RATE_LIMITS_DEFAULT.
+ * The IP is the connection's remote address; behind a proxy, configure the
+ * container (e.g. Tomcat's RemoteIpValve) so that it is the client's.
+ */
+@WebFilter(filterName = "RateLimitFilter", urlPatterns = {"/*"}, asyncSupported = true)
+public class RateLimitFilter implements Filter {
+
+    private static final Logger LOGGER = Logger.getLogger(RateLimitFilter.class.getName());
+
+    private static final String REJECTED_METRIC = "http_rate_limited_total";
+    private static final String REJECTED_HELP = "POST requests refused by the rate limiter";
+
+    // Written once in init(), read-only afterwards
+    private Map<String, RateLimiter> limiters = Map.of();
+    private ScheduledExecutorService evictor;
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        String spec = System.getProperty(AppConstants.RATE_LIMITS_PROPERTY, AppConstants.RATE_LIMITS_DEFAULT);
+        try {
+            limiters = parse(spec);
+        } catch (IllegalArgumentException e) {
+            throw new ServletException("Invalid " + AppConstants.RATE_LIMITS_PROPERTY + ": " + spec, e);
+        }
+
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "minishop-rate-limit-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        evictor.scheduleWithFixedDelay(this::evictIdle, AppConstants.RATE_LIMIT_EVICT_INTERVAL_MS,
+            AppConstants.RATE_LIMIT_EVICT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        LOGGER.info("RateLimitFilter initialized - " + spec);
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse,
+                        FilterChain chain) throws IOException, ServletException {
+
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+
+        if ("POST".equals(request.getMethod())) {
+            // Decoded and normalized by the container, unlike the raw URI
+            // (/login;x=1, /%6Cogin and //login all resolve to /login)
+            String path = request.getPathInfo() == null
+                ? request.getServletPath()
+                : request.getServletPath() + request.getPathInfo();
+            RateLimiter limiter = limiters.get(path);
+            if (limiter != null) {
+                long waitNanos = limiter.tryAcquire(clientKey(request));
+                if (waitNanos > 0) {
+                    reject((HttpServletResponse) servletResponse, path, waitNanos);
+                    return;
+                }
+            }
+        }
+
+        chain.doFilter(servletRequest, servletResponse);
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        User user = CurrentUser.resolve(request);
+        return user != null ? "u:" + user.getId() : "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, String path, long waitNanos) throws IOException {
+        MetricsRegistry.get().counter(REJECTED_METRIC, REJECTED_HELP, "path", path).increment();
+        LOGGER.fine("Rate limit exceeded on " + path);
+
+        // Plain text on purpose: no JSP, no session, nothing to compute
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(429);
+        response.setHeader("Retry-After", Long.toString(retryAfter));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("Trop de requêtes, veuillez réessayer dans " + retryAfter + " s");
+    }
+
+    private void evictIdle() {
+        int evicted = 0;
+        for (RateLimiter limiter : limiters.values()) {
+            evicted += limiter.evictIdle();
+        }
+        if (evicted > 0) {
+            LOGGER.fine("Evicted " + evicted + " idle rate-limit buckets");
+        }
+    }
+
+    /**
+     * Parse "path=requests/seconds,..." into one limiter per path.
+     */
+    static Map<String, RateLimiter> parse(String spec) {
+        Map<String, RateLimiter> result = new HashMap<>();
+        for (String rule : spec.split(",")) {
+            rule = rule.trim();
+            if (rule.isEmpty()) {
+                continue;
+            }
+            int eq = rule.indexOf('=');
+            int slash = rule.indexOf('/', eq);
+            if (eq <= 0 || slash < 0) {
+                throw new IllegalArgumentException("Expected path=requests/seconds, got " + rule);
+            }
+            int permits = Integer.parseInt(rule.substring(eq + 1, slash).trim());
+            long seconds = Long.parseLong(rule.substring(slash + 1).trim());
+            result.put(rule.substring(0, eq).trim(), new RateLimiter(permits, TimeUnit.SECONDS.toNanos(seconds)));
+        }
+        return Map.copyOf(result);
+    }
+
+    @Override
+    public void destroy() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        LOGGER.info("RateLimitFilter destroyed");
+    }
+}
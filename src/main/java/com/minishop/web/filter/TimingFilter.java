@@ -0,0 +1,107 @@
+package com.minishop.web.filter;
+
+import com.minishop.util.LatencyHistogram;
+import com.minishop.util.MetricsRegistry;
+import jakarta.servlet.*;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.logging.Logger;
+
+/**
+ * Timing filter
+ * Records how long every request takes, per route, and counts responses per
+ * status class. The route is the servlet mapping pattern (e.g. /product, not
+ * /product?id=42), so the number of series stays bounded. Async requests are
+ * recorded when they complete.
+ */
+@WebFilter(filterName = "TimingFilter", urlPatterns = {"/*"}, asyncSupported = true)
+public class TimingFilter implements Filter {
+
+    private static final Logger LOGGER = Logger.getLogger(TimingFilter.class.getName());
+
+    private static final String DURATION_METRIC = "http_request_duration";
+    private static final String DURATION_HELP = "Request processing time per route";
+    private static final String RESPONSES_METRIC = "http_responses_total";
+    private static final String RESPONSES_HELP = "Responses per status class";
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final MetricsRegistry metrics = MetricsRegistry.get();
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        LOGGER.info("TimingFilter initialized");
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse,
+                        FilterChain chain) throws IOException, ServletException {
+
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        HttpServletResponse response = (HttpServletResponse) servletResponse;
+
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                request.getAsyncContext().addListener(new CompletionListener(request, response, start));
+            } else {
+                record(request, response, start);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long start) {
+        LatencyHistogram histogram = metrics.histogram(DURATION_METRIC, DURATION_HELP, "route", route(request));
+        histogram.recordSinceNanos(start);
+
+        int statusClass = response.getStatus() / 100;
+        String label = statusClass >= 1 && statusClass <= 5 ? STATUS_CLASSES[statusClass - 1] : "other";
+        metrics.counter(RESPONSES_METRIC, RESPONSES_HELP, "status", label).increment();
+    }
+
+    private static String route(HttpServletRequest request) {
+        String pattern = request.getHttpServletMapping().getPattern();
+        return pattern.isEmpty() ? "/" : pattern;
+    }
+
+    @Override
+    public void destroy() {
+        LOGGER.info("TimingFilter destroyed");
+    }
+
+    private final class CompletionListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long start;
+
+        private CompletionListener(HttpServletRequest request, HttpServletResponse response, long start) {
+            this.request = request;
+            this.response = response;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(request, response, start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.minishop.web.filter;
+
+import jakarta.servlet.*;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
+import java.util.logging.Logger;
+
+/**
+ * Token authentication filter
+ * Resolves the current user for every request (see CurrentUser), so pages
+ * render the logged-in state from the remember-me cookie alone, without a session
+ */
+@WebFilter(filterName = "TokenAuthFilter", urlPatterns = {"/*"}, asyncSupported = true)
+public class TokenAuthFilter implements Filter {
+
+    private static final Logger LOGGER = Logger.getLogger(TokenAuthFilter.class.getName());
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        LOGGER.info("TokenAuthFilter initialized - resolving users for all requests");
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse,
+                        FilterChain chain) throws IOException, ServletException {
+
+        CurrentUser.resolve((HttpServletRequest) servletRequest);
+        chain.doFilter(servletRequest, servletResponse);
+    }
+
+    @Override
+    public void destroy() {
+        LOGGER.info("TokenAuthFilter destroyed");
+    }
+}
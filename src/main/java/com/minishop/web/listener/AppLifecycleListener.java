@@ -0,0 +1,36 @@
+package com.minishop.web.listener;
+
+import com.minishop.config.AppConstants;
+import com.minishop.config.AppContext;
+import com.minishop.util.AsyncLogHandler;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+/**
+ * Application lifecycle listener
+ * Builds the application context (connection pool, caches, DAOs, services)
+ * and starts the background job queue at deploy time, so the first request
+ * finds everything ready; tears it all down on undeploy
+ * Application logs are written by a background thread from deploy to undeploy
+ */
+@WebListener
+public class AppLifecycleListener implements ServletContextListener {
+
+    private AsyncLogHandler logHandler;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        logHandler = AsyncLogHandler.install(AppConstants.LOG_ROOT, AppConstants.LOG_BUFFER_CAPACITY);
+        AppContext.start().getJobQueue().start();
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        AppContext.stop();
+        if (logHandler != null) {
+            AsyncLogHandler.uninstall(AppConstants.LOG_ROOT, logHandler);
+            logHandler = null;
+        }
+    }
+}
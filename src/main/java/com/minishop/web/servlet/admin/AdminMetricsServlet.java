@@ -0,0 +1,35 @@
+package com.minishop.web.servlet.admin;
+
+import com.minishop.config.AppConstants;
+import com.minishop.util.MetricsRegistry;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Admin metrics servlet
+ * Serves every application metric in the Prometheus text format: request
+ * and SQL latencies (p50/p95/p99), pool, cache and job queue figures.
+ * Under /admin, so AdminFilter restricts it to administrators.
+ */
+@WebServlet(name = "AdminMetricsServlet", urlPatterns = {AppConstants.SERVLET_ADMIN_METRICS})
+public class AdminMetricsServlet extends HttpServlet {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=UTF-8";
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        response.setContentType(CONTENT_TYPE);
+        response.setHeader("Cache-Control", "no-store");
+        Writer out = response.getWriter();
+        MetricsRegistry.get().writePrometheus(out);
+        out.flush();
+    }
+}
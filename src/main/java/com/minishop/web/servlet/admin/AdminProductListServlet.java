@@ -1,7 +1,7 @@
 package com.minishop.web.servlet.admin;
 
 import com.minishop.config.AppConstants;
-import com.minishop.model.Product;
+import com.minishop.model.ProductPage;
 import com.minishop.service.ProductService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -10,13 +10,12 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
-import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Admin product list servlet
- * Displays all products with edit/delete options
+ * Displays products page by page with edit/delete options
  */
 @WebServlet(name = "AdminProductListServlet", urlPatterns = {AppConstants.SERVLET_ADMIN_PRODUCTS})
 public class AdminProductListServlet extends HttpServlet {
@@ -35,13 +34,17 @@ public class AdminProductListServlet extends HttpServlet {
             throws ServletException, IOException {
 
         try {
-            List<Product> products = productService.getAllProducts();
+            ProductPage page = productService.getProductPage(
+                request.getParameter("after"),
+                request.getParameter("before"),
+                AppConstants.ADMIN_PRODUCTS_PAGE_SIZE);
 
-            request.setAttribute("products", products);
-            request.setAttribute("productCount", products.size());
+            request.setAttribute("products", page.getProducts());
+            request.setAttribute("productCount", page.getSize());
+            request.setAttribute("productPage", page);
             request.setAttribute("pageTitle", "Gestion Produits - Admin");
 
-            LOGGER.info("Admin viewing " + products.size() + " products");
+            LOGGER.info("Admin viewing " + page.getSize() + " products");
 
             request.getRequestDispatcher(AppConstants.JSP_ADMIN_PRODUCTS).forward(request, response);
 
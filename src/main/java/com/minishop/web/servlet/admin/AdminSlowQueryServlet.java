@@ -0,0 +1,69 @@
+package com.minishop.web.servlet.admin;
+
+import com.minishop.config.AppConstants;
+import com.minishop.config.AppContext;
+import com.minishop.config.QueryTracer;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+import java.util.logging.Logger;
+
+/**
+ * Admin slow query servlet
+ * GET lists the last slow DAO calls with their phase times, POST changes
+ * the tracing threshold (0 turns tracing off).
+ */
+@WebServlet(name = "AdminSlowQueryServlet", urlPatterns = {AppConstants.SERVLET_ADMIN_SLOW_QUERIES})
+public class AdminSlowQueryServlet extends HttpServlet {
+
+    private static final Logger LOGGER = Logger.getLogger(AdminSlowQueryServlet.class.getName());
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        QueryTracer tracer = AppContext.get().getPool().getTracer();
+
+        request.setAttribute("tracer", tracer);
+        request.setAttribute("traces", tracer.getRecent());
+        request.setAttribute("pageTitle", "Requêtes lentes - Admin");
+
+        request.getRequestDispatcher(AppConstants.JSP_ADMIN_SLOW_QUERIES).forward(request, response);
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        HttpSession session = request.getSession();
+        QueryTracer tracer = AppContext.get().getPool().getTracer();
+
+        String thresholdParam = request.getParameter("thresholdMs");
+        long thresholdMs = -1;
+        if (thresholdParam != null) {
+            try {
+                thresholdMs = Long.parseLong(thresholdParam.trim());
+            } catch (NumberFormatException e) {
+                // Left at -1, rejected below
+            }
+        }
+
+        if (!QueryTracer.isValidThreshold(thresholdMs)) {
+            session.setAttribute(AppConstants.SESSION_ERROR_MESSAGE,
+                "Seuil invalide (entre 0 et " + AppConstants.SLOW_QUERY_MAX_THRESHOLD_MS + " ms)");
+        } else {
+            tracer.setThresholdMs(thresholdMs);
+            LOGGER.info("Slow query threshold set to " + thresholdMs + "ms");
+            session.setAttribute(AppConstants.SESSION_SUCCESS_MESSAGE, thresholdMs == 0
+                ? "Traçage des requêtes désactivé"
+                : "Seuil des requêtes lentes fixé à " + thresholdMs + " ms");
+        }
+
+        response.sendRedirect(request.getContextPath() + AppConstants.SERVLET_ADMIN_SLOW_QUERIES);
+    }
+}
@@ -3,6 +3,8 @@ package com.minishop.web.servlet.auth;
 import com.minishop.config.AppConstants;
 import com.minishop.model.User;
 import com.minishop.service.AuthService;
+import com.minishop.service.LoginBusyException;
+import com.minishop.web.filter.CurrentUser;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -36,10 +38,8 @@ public class LoginServlet extends HttpServlet {
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        HttpSession session = request.getSession(false);
-
         // If user is already logged in, redirect to products
-        if (session != null && session.getAttribute(AppConstants.AUTH_USER) != null) {
+        if (CurrentUser.resolve(request) != null) {
             response.sendRedirect(request.getContextPath() + AppConstants.SERVLET_PRODUCTS);
             return;
         }
@@ -78,7 +78,19 @@ public class LoginServlet extends HttpServlet {
         }
 
         // Attempt authentication
-        User user = authService.login(email, password);
+        User user;
+        try {
+            user = authService.login(email, password);
+        } catch (LoginBusyException e) {
+            // Verification pool saturated: ask to retry rather than report bad credentials
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "5");
+            request.setAttribute("errorMessage",
+                    "Trop de connexions en cours, veuillez réessayer dans quelques instants");
+            request.setAttribute("email", email);
+            request.getRequestDispatcher(AppConstants.JSP_LOGIN).forward(request, response);
+            return;
+        }
 
         if (user == null) {
             LOGGER.warning("Failed login attempt for email: " + email);
@@ -93,11 +105,12 @@ public class LoginServlet extends HttpServlet {
         HttpSession session = request.getSession(true);
         session.setAttribute(AppConstants.AUTH_USER, user);
 
-        // Set session timeout based on "remember me"
+        // "Remember me" is a signed cookie, not a long-lived session:
+        // once the session times out, the token logs the user back in
         if ("on".equals(rememberMe)) {
-            session.setMaxInactiveInterval(30 * 24 * 60 * 60); // 30 days
+            CurrentUser.remember(request, response, user);
         } else {
-            session.setMaxInactiveInterval(30 * 60); // 30 minutes
+            CurrentUser.forget(request, response);
         }
 
         // Set success message
@@ -2,6 +2,8 @@ package com.minishop.web.servlet.auth;
 
 import com.minishop.config.AppConstants;
 import com.minishop.model.User;
+import com.minishop.service.AuthService;
+import com.minishop.web.filter.CurrentUser;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -10,11 +12,13 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 
 import java.io.IOException;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Logout servlet
- * Handles user logout by invalidating the session
+ * Handles user logout by invalidating the session and revoking the user's
+ * remember-me tokens, including copies of the cookie
  */
 @WebServlet(name = "LogoutServlet", urlPatterns = {AppConstants.SERVLET_LOGOUT})
 public class LogoutServlet extends HttpServlet {
@@ -42,20 +46,26 @@ public class LogoutServlet extends HttpServlet {
     private void performLogout(HttpServletRequest request, HttpServletResponse response)
             throws IOException {
 
-        HttpSession session = request.getSession(false);
-
-        if (session != null) {
-            // Get user for logging before invalidating session
-            User user = (User) session.getAttribute(AppConstants.AUTH_USER);
-
-            if (user != null) {
-                LOGGER.info("User logging out: " + user.getEmail());
+        // Session or token user, resolved before either is dropped
+        User user = CurrentUser.resolve(request);
+        if (user != null) {
+            LOGGER.info("User logging out: " + user.getEmail());
+            try {
+                AuthService.getInstance().revokeTokens(user.getId());
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Could not revoke tokens of user #" + user.getId(), e);
             }
+        }
 
+        HttpSession session = request.getSession(false);
+        if (session != null) {
             // Invalidate the session
             session.invalidate();
         }
 
+        // Drop the remember-me token too
+        CurrentUser.forget(request, response);
+
         // Create new session for flash message
         HttpSession newSession = request.getSession(true);
         newSession.setAttribute(AppConstants.SESSION_INFO_MESSAGE,
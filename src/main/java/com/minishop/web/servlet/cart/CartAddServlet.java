@@ -2,6 +2,7 @@ package com.minishop.web.servlet.cart;
 
 import com.minishop.config.AppConstants;
 import com.minishop.service.CartService;
+import com.minishop.util.Log;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -11,7 +12,6 @@ import jakarta.servlet.http.HttpSession;
 
 import java.io.IOException;
 import java.util.logging.Level;
-import java.util.logging.Logger;
 
 /**
  * Cart add servlet
@@ -20,7 +20,7 @@ import java.util.logging.Logger;
 @WebServlet(name = "CartAddServlet", urlPatterns = {"/app/cart/add"})
 public class CartAddServlet extends HttpServlet {
 
-    private static final Logger LOGGER = Logger.getLogger(CartAddServlet.class.getName());
+    private static final Log LOGGER = Log.get(CartAddServlet.class);
     private CartService cartService;
 
     @Override
@@ -56,7 +56,7 @@ public class CartAddServlet extends HttpServlet {
             try {
                 productId = Long.parseLong(productIdParam);
             } catch (NumberFormatException e) {
-                LOGGER.warning("Invalid product ID format: " + productIdParam);
+                LOGGER.warning("Invalid product ID format: {0}", productIdParam);
                 session.setAttribute(AppConstants.SESSION_ERROR_MESSAGE,
                     "Identifiant du produit invalide");
                 response.sendRedirect(request.getContextPath() + AppConstants.SERVLET_PRODUCTS);
@@ -69,7 +69,7 @@ public class CartAddServlet extends HttpServlet {
                 try {
                     quantity = Integer.parseInt(quantityParam);
                 } catch (NumberFormatException e) {
-                    LOGGER.warning("Invalid quantity format: " + quantityParam);
+                    LOGGER.warning("Invalid quantity format: {0}", quantityParam);
                     session.setAttribute(AppConstants.SESSION_ERROR_MESSAGE,
                         "Quantité invalide");
                     response.sendRedirect(request.getContextPath() +
@@ -91,7 +91,7 @@ public class CartAddServlet extends HttpServlet {
             cartService.addToCart(session, productId, quantity);
             session.setAttribute(AppConstants.SESSION_SUCCESS_MESSAGE,
                 "Produit ajouté au panier avec succès");
-            LOGGER.info("Product added to cart: " + productId + " x" + quantity);
+            LOGGER.fine("Product added to cart: {0,number,#} x{1}", productId, quantity);
 
             // Redirect to cart page
             response.sendRedirect(request.getContextPath() + AppConstants.SERVLET_CART);
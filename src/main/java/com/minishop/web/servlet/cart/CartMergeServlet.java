@@ -1,7 +1,16 @@
 package com.minishop.web.servlet.cart;
 
 import com.minishop.config.AppConstants;
+import com.minishop.config.ExecutorConfig;
+import com.minishop.model.Product;
 import com.minishop.service.CartService;
+import com.minishop.service.ProductService;
+import com.minishop.util.JsonException;
+import com.minishop.util.JsonReader;
+import com.minishop.util.JsonWriter;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -9,28 +18,38 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Cart merge servlet
  * Merges guest cart from localStorage with session cart
- * Accepts JSON: [{productId: 1, quantity: 2}, ...]
+ * Accepts JSON: [{productId: 1, quantity: 2}, ...], streamed from the request
  * Returns JSON: {success: true, message: "...", itemsAdded: 3}
+ * The product lookup runs on a dedicated executor so login bursts do not hold
+ * container threads; if it is saturated or too slow the client gets a 503 and
+ * keeps its local cart for the next attempt
  */
-@WebServlet(name = "CartMergeServlet", urlPatterns = {"/app/cart/merge"})
+@WebServlet(name = "CartMergeServlet", urlPatterns = {"/app/cart/merge"}, asyncSupported = true)
 public class CartMergeServlet extends HttpServlet {
 
     private static final Logger LOGGER = Logger.getLogger(CartMergeServlet.class.getName());
     private CartService cartService;
+    private ProductService productService;
+    private ExecutorService executor;
 
     @Override
     public void init() throws ServletException {
         super.init();
         cartService = CartService.getInstance();
+        productService = ProductService.getInstance();
+        executor = ExecutorConfig.getCartMergeExecutor();
     }
 
     /**
@@ -45,172 +64,200 @@ public class CartMergeServlet extends HttpServlet {
         response.setCharacterEncoding("UTF-8");
 
         HttpSession session = request.getSession(false);
-        PrintWriter out = response.getWriter();
 
-        try {
-            // Check if user is logged in (using AUTH_USER constant)
-            if (session == null || session.getAttribute(AppConstants.AUTH_USER) == null) {
-                sendErrorResponse(out, "Utilisateur non connecté");
-                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                return;
-            }
+        // Check if user is logged in (using AUTH_USER constant)
+        if (session == null || session.getAttribute(AppConstants.AUTH_USER) == null) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            sendErrorResponse(response, "Utilisateur non connecté");
+            return;
+        }
+
+        // Reject declared oversized bodies before reading them
+        if (request.getContentLengthLong() > AppConstants.CART_MERGE_MAX_BODY_CHARS) {
+            response.setStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            sendErrorResponse(response, "Panier trop volumineux");
+            return;
+        }
 
-            // Read JSON body
-            StringBuilder jsonBuffer = new StringBuilder();
-            String line;
-            try (BufferedReader reader = request.getReader()) {
-                while ((line = reader.readLine()) != null) {
-                    jsonBuffer.append(line);
+        Map<Long, Integer> quantities;
+        try (JsonReader json = new JsonReader(request.getReader(), AppConstants.CART_MERGE_MAX_BODY_CHARS)) {
+            quantities = parseLines(json);
+        } catch (JsonException e) {
+            LOGGER.warning("Rejected cart merge payload: " + e.getMessage());
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            sendErrorResponse(response, "Format de panier invalide");
+            return;
+        }
+
+        if (quantities.isEmpty()) {
+            // Empty cart - nothing to merge
+            sendSuccessResponse(response, "Aucun article à fusionner", 0);
+            return;
+        }
+
+        AsyncContext async = request.startAsync();
+        async.setTimeout(AppConstants.CART_MERGE_TIMEOUT_MS);
+
+        // Whoever flips this first (worker, timeout or error) owns the response
+        AtomicBoolean answered = new AtomicBoolean();
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) throws IOException {
+                if (answered.compareAndSet(false, true)) {
+                    LOGGER.warning("Cart merge timed out after " + AppConstants.CART_MERGE_TIMEOUT_MS + "ms");
+                    sendUnavailable(async);
                 }
             }
 
-            String jsonBody = jsonBuffer.toString().trim();
+            @Override
+            public void onError(AsyncEvent event) {
+                answered.set(true);
+                LOGGER.log(Level.WARNING, "Cart merge connection error", event.getThrowable());
+            }
 
-            if (jsonBody.isEmpty() || jsonBody.equals("[]")) {
-                // Empty cart - nothing to merge
-                sendSuccessResponse(out, "Aucun article à fusionner", 0);
-                return;
+            @Override
+            public void onComplete(AsyncEvent event) {
             }
 
-            // Parse JSON manually (simple parsing for [{productId:1,quantity:2},...])
-            int itemsAdded = parseAndMergeCart(jsonBody, session);
-
-            if (itemsAdded >= 0) {
-                String message = itemsAdded > 0
-                    ? itemsAdded + " article" + (itemsAdded > 1 ? "s" : "") + " fusionné" + (itemsAdded > 1 ? "s" : "") + " avec votre panier"
-                    : "Panier fusionné avec succès";
-                sendSuccessResponse(out, message, itemsAdded);
-                LOGGER.info("Cart merged successfully: " + itemsAdded + " items");
-            } else {
-                sendErrorResponse(out, "Erreur lors de la fusion du panier");
-                response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            @Override
+            public void onStartAsync(AsyncEvent event) {
             }
+        });
 
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error merging cart", e);
-            sendErrorResponse(out, "Erreur serveur: " + e.getMessage());
-            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        try {
+            executor.execute(() -> merge(async, answered, session, quantities));
+        } catch (RejectedExecutionException e) {
+            if (answered.compareAndSet(false, true)) {
+                LOGGER.warning("Cart merge executor saturated, rejecting merge");
+                sendUnavailable(async);
+            }
         }
     }
 
     /**
-     * Parse JSON and merge cart items
-     * Simple JSON parser for [{productId:1,quantity:2},...]
+     * Load the products off the container thread, then apply the merge unless
+     * the request already timed out; a late merge is dropped so the client's
+     * retry does not add the lines twice
      */
-    private int parseAndMergeCart(String json, HttpSession session) {
-        int itemsAdded = 0;
-
+    private void merge(AsyncContext async, AtomicBoolean answered, HttpSession session,
+                       Map<Long, Integer> quantities) {
+        HttpServletResponse response = (HttpServletResponse) async.getResponse();
         try {
-            // Remove [ ] and split by },{ or },{
-            json = json.trim();
-            if (json.startsWith("[")) {
-                json = json.substring(1);
-            }
-            if (json.endsWith("]")) {
-                json = json.substring(0, json.length() - 1);
+            Map<Long, Product> products = productService.getProductsByIds(quantities.keySet());
+            if (!answered.compareAndSet(false, true)) {
+                LOGGER.info("Dropping late cart merge result");
+                return;
             }
 
-            json = json.trim();
-            if (json.isEmpty()) {
-                return 0;
+            int itemsAdded = cartService.addAll(session, quantities, products);
+
+            String message = itemsAdded > 0
+                ? itemsAdded + " article" + (itemsAdded > 1 ? "s" : "") + " fusionné" + (itemsAdded > 1 ? "s" : "") + " avec votre panier"
+                : "Panier fusionné avec succès";
+            sendSuccessResponse(response, message, itemsAdded);
+            LOGGER.info("Cart merged successfully: " + itemsAdded + " items");
+            async.complete();
+
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error merging cart", e);
+            if (answered.compareAndSet(false, true)) {
+                try {
+                    response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                    sendErrorResponse(response, "Erreur lors de la fusion du panier");
+                } catch (IOException ioe) {
+                    LOGGER.log(Level.FINE, "Could not send cart merge error", ioe);
+                }
+                async.complete();
             }
+        }
+    }
 
-            // Split items
-            String[] items = json.split("\\},\\s*\\{");
+    /**
+     * Fallback when the merge cannot run in time; the client keeps its local cart
+     */
+    private void sendUnavailable(AsyncContext async) {
+        HttpServletResponse response = (HttpServletResponse) async.getResponse();
+        try {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "5");
+            sendErrorResponse(response, "Service momentanément surchargé, votre panier sera fusionné plus tard");
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Could not send cart merge fallback", e);
+        }
+        async.complete();
+    }
 
-            for (String item : items) {
-                // Remove { and }
-                item = item.replace("{", "").replace("}", "").trim();
+    /**
+     * Read [{productId: 1, quantity: 2, ...}, ...] straight from the request body
+     * Other fields (productName, price) are skipped; invalid lines are ignored
+     * and duplicates summed
+     */
+    private Map<Long, Integer> parseLines(JsonReader json) throws IOException {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        int items = 0;
 
-                if (item.isEmpty()) {
-                    continue;
-                }
+        if (!json.hasNext()) {
+            // Empty body
+            return quantities;
+        }
 
-                // Parse productId and quantity
-                long productId = -1;
-                int quantity = 0;
-
-                // Split by comma
-                String[] fields = item.split(",");
-                for (String field : fields) {
-                    field = field.trim();
-                    String[] keyValue = field.split(":");
-
-                    if (keyValue.length == 2) {
-                        String key = keyValue[0].trim().replace("\"", "");
-                        String value = keyValue[1].trim().replace("\"", "");
-
-                        if (key.equals("productId")) {
-                            try {
-                                productId = Long.parseLong(value);
-                            } catch (NumberFormatException e) {
-                                LOGGER.warning("Invalid productId: " + value);
-                            }
-                        } else if (key.equals("quantity")) {
-                            try {
-                                quantity = Integer.parseInt(value);
-                            } catch (NumberFormatException e) {
-                                LOGGER.warning("Invalid quantity: " + value);
-                            }
-                        }
-                    }
-                }
+        json.beginArray();
+        while (json.hasNext()) {
+            if (++items > AppConstants.CART_MERGE_MAX_ITEMS) {
+                throw new JsonException("More than " + AppConstants.CART_MERGE_MAX_ITEMS + " items");
+            }
 
-                // Add to cart if valid
-                if (productId > 0 && quantity > 0) {
-                    try {
-                        cartService.addToCart(session, productId, quantity);
-                        itemsAdded++;
-                        LOGGER.info("Added to cart: productId=" + productId + ", quantity=" + quantity);
-                    } catch (IllegalArgumentException e) {
-                        LOGGER.log(Level.WARNING, "Failed to add to cart: productId=" + productId, e);
-                    }
+            long productId = -1;
+            int quantity = 0;
+
+            json.beginObject();
+            while (json.hasNext()) {
+                String name = json.nextName();
+                if (name.equals("productId")) {
+                    productId = json.nextLong();
+                } else if (name.equals("quantity")) {
+                    quantity = json.nextInt();
+                } else {
+                    json.skipValue();
                 }
             }
+            json.endObject();
 
-            return itemsAdded;
-
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error parsing cart JSON", e);
-            return -1;
+            // Collect valid lines, summing duplicates
+            if (productId > 0 && quantity > 0) {
+                quantities.merge(productId, quantity, Integer::sum);
+            }
         }
+        json.endArray();
+        json.endDocument();
+
+        return quantities;
     }
 
     /**
      * Send success JSON response
      */
-    private void sendSuccessResponse(PrintWriter out, String message, int itemsAdded) {
-        out.print("{");
-        out.print("\"success\": true,");
-        out.print("\"message\": \"" + escapeJson(message) + "\",");
-        out.print("\"itemsAdded\": " + itemsAdded);
-        out.print("}");
-        out.flush();
+    private void sendSuccessResponse(HttpServletResponse response, String message, int itemsAdded)
+            throws IOException {
+        JsonWriter json = new JsonWriter(response.getWriter());
+        json.beginObject()
+            .name("success").value(true)
+            .name("message").value(message)
+            .name("itemsAdded").value(itemsAdded)
+            .endObject()
+            .flush();
     }
 
     /**
      * Send error JSON response
      */
-    private void sendErrorResponse(PrintWriter out, String message) {
-        out.print("{");
-        out.print("\"success\": false,");
-        out.print("\"message\": \"" + escapeJson(message) + "\"");
-        out.print("}");
-        out.flush();
-    }
-
-    /**
-     * Escape string for JSON
-     */
-    private String escapeJson(String str) {
-        if (str == null) {
-            return "";
-        }
-        return str.replace("\\", "\\\\")
-                  .replace("\"", "\\\"")
-                  .replace("\n", "\\n")
-                  .replace("\r", "\\r")
-                  .replace("\t", "\\t");
+    private void sendErrorResponse(HttpServletResponse response, String message) throws IOException {
+        JsonWriter json = new JsonWriter(response.getWriter());
+        json.beginObject()
+            .name("success").value(false)
+            .name("message").value(message)
+            .endObject()
+            .flush();
     }
 
     /**
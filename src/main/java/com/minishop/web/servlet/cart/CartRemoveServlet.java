@@ -2,6 +2,7 @@ package com.minishop.web.servlet.cart;
 
 import com.minishop.config.AppConstants;
 import com.minishop.service.CartService;
+import com.minishop.util.Log;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -11,7 +12,6 @@ import jakarta.servlet.http.HttpSession;
 
 import java.io.IOException;
 import java.util.logging.Level;
-import java.util.logging.Logger;
 
 /**
  * Cart remove servlet
@@ -20,7 +20,7 @@ import java.util.logging.Logger;
 @WebServlet(name = "CartRemoveServlet", urlPatterns = {"/app/cart/remove"})
 public class CartRemoveServlet extends HttpServlet {
 
-    private static final Logger LOGGER = Logger.getLogger(CartRemoveServlet.class.getName());
+    private static final Log LOGGER = Log.get(CartRemoveServlet.class);
     private CartService cartService;
 
     @Override
@@ -55,7 +55,7 @@ public class CartRemoveServlet extends HttpServlet {
             try {
                 productId = Long.parseLong(productIdParam);
             } catch (NumberFormatException e) {
-                LOGGER.warning("Invalid product ID format: " + productIdParam);
+                LOGGER.warning("Invalid product ID format: {0}", productIdParam);
                 session.setAttribute(AppConstants.SESSION_ERROR_MESSAGE,
                     "Identifiant du produit invalide");
                 response.sendRedirect(request.getContextPath() + AppConstants.SERVLET_CART);
@@ -66,7 +66,7 @@ public class CartRemoveServlet extends HttpServlet {
             cartService.removeFromCart(session, productId);
             session.setAttribute(AppConstants.SESSION_SUCCESS_MESSAGE,
                 "Produit retiré du panier");
-            LOGGER.info("Product removed from cart: " + productId);
+            LOGGER.fine("Product removed from cart: {0,number,#}", productId);
 
             // Redirect to cart page
             response.sendRedirect(request.getContextPath() + AppConstants.SERVLET_CART);
@@ -3,6 +3,8 @@ package com.minishop.web.servlet.cart;
 import com.minishop.config.AppConstants;
 import com.minishop.model.Cart;
 import com.minishop.service.CartService;
+import com.minishop.service.CheckoutService;
+import com.minishop.util.Log;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -12,7 +14,6 @@ import jakarta.servlet.http.HttpSession;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.logging.Logger;
 
 /**
  * Cart view servlet
@@ -21,7 +22,7 @@ import java.util.logging.Logger;
 @WebServlet(name = "CartViewServlet", urlPatterns = {"/app/cart"})
 public class CartViewServlet extends HttpServlet {
 
-    private static final Logger LOGGER = Logger.getLogger(CartViewServlet.class.getName());
+    private static final Log LOGGER = Log.get(CartViewServlet.class);
     private CartService cartService;
 
     @Override
@@ -50,11 +51,12 @@ public class CartViewServlet extends HttpServlet {
             request.setAttribute("validationMessages", validationMessages);
         }
 
-        // Set cart in request for JSP
+        // Set cart in request for JSP, with a fresh token for the checkout form
         request.setAttribute("cart", cart);
+        request.setAttribute("checkoutToken", CheckoutService.newCheckoutToken());
         request.setAttribute("pageTitle", "Mon Panier - MiniShop");
 
-        LOGGER.info("Displaying cart with " + cart.getItemCount() + " items");
+        LOGGER.fine("Displaying cart with {0} items", cart.getItemCount());
 
         // Forward to cart JSP
         request.getRequestDispatcher(AppConstants.JSP_CART).forward(request, response);
@@ -0,0 +1,101 @@
+package com.minishop.web.servlet.cart;
+
+import com.minishop.config.AppConstants;
+import com.minishop.model.Order;
+import com.minishop.model.User;
+import com.minishop.service.CatalogueUnavailableException;
+import com.minishop.service.CheckoutService;
+import com.minishop.service.InsufficientStockException;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Checkout servlet
+ * Turns the user's cart into an order
+ * The form's one-time token makes a double submit return the first order
+ */
+@WebServlet(name = "CheckoutServlet", urlPatterns = {AppConstants.SERVLET_CHECKOUT})
+public class CheckoutServlet extends HttpServlet {
+
+    private static final Logger LOGGER = Logger.getLogger(CheckoutServlet.class.getName());
+    private CheckoutService checkoutService;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        checkoutService = CheckoutService.getInstance();
+    }
+
+    /**
+     * Place the order
+     */
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        HttpSession session = request.getSession();
+        User user = (User) session.getAttribute(AppConstants.AUTH_USER);
+
+        try {
+            // Prices and stock are refreshed first; any change is shown before paying
+            List<String> adjustments = new ArrayList<>();
+            Order order = checkoutService.checkout(user, session, request.getParameter("checkoutToken"),
+                                                   adjustments);
+            if (!adjustments.isEmpty()) {
+                session.setAttribute(AppConstants.SESSION_ERROR_MESSAGE,
+                    "Votre panier a été ajusté, vérifiez-le avant de valider : " + String.join(" ; ", adjustments));
+                response.sendRedirect(request.getContextPath() + AppConstants.SERVLET_CART);
+                return;
+            }
+            if (order == null) {
+                session.setAttribute(AppConstants.SESSION_ERROR_MESSAGE, "Votre panier est vide");
+                response.sendRedirect(request.getContextPath() + AppConstants.SERVLET_CART);
+                return;
+            }
+
+            session.setAttribute(AppConstants.SESSION_SUCCESS_MESSAGE,
+                "Commande n°" + order.getId() + " enregistrée (" + order.getFormattedTotal() + "). Merci !");
+            response.sendRedirect(request.getContextPath() + AppConstants.SERVLET_PRODUCTS);
+
+        } catch (InsufficientStockException e) {
+            LOGGER.log(Level.INFO, "Checkout refused: " + e.getMessage());
+            session.setAttribute(AppConstants.SESSION_ERROR_MESSAGE,
+                "Stock insuffisant pour certains articles, vérifiez votre panier.");
+            response.sendRedirect(request.getContextPath() + AppConstants.SERVLET_CART);
+        } catch (CatalogueUnavailableException e) {
+            LOGGER.log(Level.WARNING, "Checkout refused: " + e.getMessage());
+            session.setAttribute(AppConstants.SESSION_ERROR_MESSAGE,
+                "Le catalogue est momentanément indisponible, veuillez réessayer");
+            response.sendRedirect(request.getContextPath() + AppConstants.SERVLET_CART);
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Unable to place order", e);
+            session.setAttribute(AppConstants.SESSION_ERROR_MESSAGE,
+                "Impossible de valider la commande");
+            response.sendRedirect(request.getContextPath() + AppConstants.SERVLET_CART);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error placing order", e);
+            session.setAttribute(AppConstants.SESSION_ERROR_MESSAGE,
+                "Une erreur est survenue lors de la validation de la commande");
+            response.sendRedirect(request.getContextPath() + AppConstants.SERVLET_CART);
+        }
+    }
+
+    /**
+     * Redirect GET requests to cart page
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        response.sendRedirect(request.getContextPath() + AppConstants.SERVLET_CART);
+    }
+}
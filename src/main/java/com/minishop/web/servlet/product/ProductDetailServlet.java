@@ -3,6 +3,7 @@ package com.minishop.web.servlet.product;
 import com.minishop.config.AppConstants;
 import com.minishop.model.Product;
 import com.minishop.service.ProductService;
+import com.minishop.util.Log;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -11,7 +12,6 @@ import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
 import java.util.logging.Level;
-import java.util.logging.Logger;
 
 /**
  * Product detail servlet
@@ -20,7 +20,7 @@ import java.util.logging.Logger;
 @WebServlet(name = "ProductDetailServlet", urlPatterns = {AppConstants.SERVLET_PRODUCT_DETAIL})
 public class ProductDetailServlet extends HttpServlet {
 
-    private static final Logger LOGGER = Logger.getLogger(ProductDetailServlet.class.getName());
+    private static final Log LOGGER = Log.get(ProductDetailServlet.class);
     private ProductService productService;
 
     @Override
@@ -51,7 +51,7 @@ public class ProductDetailServlet extends HttpServlet {
             try {
                 productId = Long.parseLong(idParam);
             } catch (NumberFormatException e) {
-                LOGGER.warning("Invalid product ID format: " + idParam);
+                LOGGER.warning("Invalid product ID format: {0}", idParam);
                 response.sendRedirect(request.getContextPath() + AppConstants.SERVLET_PRODUCTS);
                 return;
             }
@@ -60,7 +60,7 @@ public class ProductDetailServlet extends HttpServlet {
             Product product = productService.getProductById(productId);
 
             if (product == null) {
-                LOGGER.warning("Product not found: " + productId);
+                LOGGER.warning("Product not found: {0,number,#}", productId);
                 request.getSession().setAttribute(AppConstants.SESSION_ERROR_MESSAGE,
                     "Le produit demandé n'existe pas.");
                 response.sendRedirect(request.getContextPath() + AppConstants.SERVLET_PRODUCTS);
@@ -71,7 +71,7 @@ public class ProductDetailServlet extends HttpServlet {
             request.setAttribute("product", product);
             request.setAttribute("pageTitle", product.getName() + " - MiniShop");
 
-            LOGGER.info("Displaying product: " + product.getName() + " (ID: " + productId + ")");
+            LOGGER.fine("Displaying product: {0} (ID: {1,number,#})", product.getName(), productId);
 
             // Forward to product detail JSP
             request.getRequestDispatcher(AppConstants.JSP_PRODUCT_DETAIL).forward(request, response);
@@ -1,8 +1,9 @@
 package com.minishop.web.servlet.product;
 
 import com.minishop.config.AppConstants;
-import com.minishop.model.Product;
+import com.minishop.model.ProductPage;
 import com.minishop.service.ProductService;
+import com.minishop.util.Log;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -10,17 +11,16 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
-import java.util.List;
 import java.util.logging.Level;
-import java.util.logging.Logger;
 
 /**
  * Product list servlet.
+ * Renders one catalogue page at a time; ?after= / ?before= carry the cursors.
  */
 @WebServlet(name = "ProductListServlet", urlPatterns = {AppConstants.SERVLET_PRODUCTS})
 public class ProductListServlet extends HttpServlet {
 
-    private static final Logger LOGGER = Logger.getLogger(ProductListServlet.class.getName());
+    private static final Log LOGGER = Log.get(ProductListServlet.class);
     private ProductService productService;
 
     @Override
@@ -34,13 +34,17 @@ public class ProductListServlet extends HttpServlet {
             throws ServletException, IOException {
 
         try {
-            List<Product> products = productService.getAllProducts();
+            ProductPage page = productService.getProductPage(
+                request.getParameter("after"),
+                request.getParameter("before"),
+                AppConstants.PRODUCTS_PAGE_SIZE);
 
-            request.setAttribute("products", products);
-            request.setAttribute("productCount", products.size());
+            request.setAttribute("products", page.getProducts());
+            request.setAttribute("productCount", page.getSize());
+            request.setAttribute("productPage", page);
             request.setAttribute("pageTitle", "Catalogue - MiniShop");
 
-            LOGGER.info("Displaying " + products.size() + " products");
+            LOGGER.fine("Displaying {0} products", page.getSize());
 
             request.getRequestDispatcher(AppConstants.JSP_PRODUCTS).forward(request, response);
 
@@ -0,0 +1,62 @@
+package com.minishop.web.servlet.product;
+
+import com.minishop.config.AppConstants;
+import com.minishop.model.Product;
+import com.minishop.service.ProductService;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Product search servlet.
+ * Full-text search over the catalogue; ?q= carries the query.
+ */
+@WebServlet(name = "SearchServlet", urlPatterns = {AppConstants.SERVLET_SEARCH})
+public class SearchServlet extends HttpServlet {
+
+    private static final Logger LOGGER = Logger.getLogger(SearchServlet.class.getName());
+    private ProductService productService;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        productService = ProductService.getInstance();
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        String query = request.getParameter("q");
+        query = query == null ? "" : query.trim();
+        if (query.length() > AppConstants.SEARCH_MAX_QUERY_LENGTH) {
+            query = query.substring(0, AppConstants.SEARCH_MAX_QUERY_LENGTH);
+        }
+
+        request.setAttribute("query", query);
+        request.setAttribute("pageTitle", "Recherche - MiniShop");
+
+        try {
+            List<Product> products = query.isEmpty()
+                ? List.of()
+                : productService.search(query, AppConstants.SEARCH_RESULTS_LIMIT);
+
+            request.setAttribute("products", products);
+            request.setAttribute("productCount", products.size());
+
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error searching products for: " + query, e);
+            request.setAttribute("errorMessage",
+                "Une erreur est survenue lors de la recherche. Veuillez réessayer.");
+        }
+
+        request.getRequestDispatcher(AppConstants.JSP_SEARCH).forward(request, response);
+    }
+}
@@ -1,8 +1,7 @@
 -- ============================================
 -- MiniShop Database Schema
 -- MySQL 8.0+
--- STRICTEMENT conforme à l'énoncé du projet
--- 2 TABLES UNIQUEMENT : users, products
+-- Tables : users, products, orders, order_items, jobs
 -- Panier géré en SESSION (pas en base)
 -- ============================================
 
@@ -16,7 +15,13 @@ USE minishop;
 
 -- ============================================
 -- Table: users
--- Champs : id, email, password_hash, full_name, role, created_at
+-- Champs : id, email, password_hash, full_name, role, token_version, created_at
+-- token_version révoque les jetons « Se souvenir de moi » : incrémenté à la
+-- déconnexion, et par le trigger ci-dessous à chaque changement de rôle ou
+-- de mot de passe (y compris fait directement en SQL).
+-- Mise à jour d'une base existante :
+--   ALTER TABLE users ADD COLUMN token_version INT NOT NULL DEFAULT 0 AFTER role;
+--   puis créer le trigger trg_users_token_version ci-dessous
 -- ============================================
 CREATE TABLE users (
   id BIGINT PRIMARY KEY AUTO_INCREMENT,
@@ -24,9 +29,15 @@ CREATE TABLE users (
   password_hash VARCHAR(255) NOT NULL,
   full_name VARCHAR(120) NOT NULL,
   role ENUM('USER','ADMIN') NOT NULL DEFAULT 'USER',
+  token_version INT NOT NULL DEFAULT 0,
   created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+CREATE TRIGGER trg_users_token_version BEFORE UPDATE ON users
+FOR EACH ROW
+  SET NEW.token_version = IF(NEW.role <> OLD.role OR NEW.password_hash <> OLD.password_hash,
+                             OLD.token_version + 1, NEW.token_version);
+
 -- ============================================
 -- Table: products
 -- Champs : id, name, description, price_cents, stock, created_at
@@ -45,10 +56,81 @@ CREATE TABLE products (
 -- Index pour recherche produits
 CREATE INDEX idx_products_name ON products(name);
 
+-- Index pour la pagination du catalogue (keyset sur created_at DESC, id DESC)
+CREATE INDEX idx_products_created_id ON products(created_at, id);
+
+-- ============================================
+-- Table: orders
+-- Champs : id, user_id, total_cents, status, checkout_token, created_at
+-- checkout_token : jeton à usage unique du formulaire de validation ; la
+-- contrainte d'unicité empêche un double envoi de créer deux commandes.
+-- Mise à jour d'une base existante :
+--   ALTER TABLE orders ADD COLUMN checkout_token VARCHAR(64) NULL AFTER status,
+--                      ADD UNIQUE KEY uk_orders_user_checkout (user_id, checkout_token);
+-- ============================================
+CREATE TABLE orders (
+  id BIGINT PRIMARY KEY AUTO_INCREMENT,
+  user_id BIGINT NOT NULL,
+  total_cents BIGINT NOT NULL,
+  status ENUM('PENDING','CONFIRMED','CANCELLED') NOT NULL DEFAULT 'PENDING',
+  checkout_token VARCHAR(64) NULL,
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  UNIQUE KEY uk_orders_user_checkout (user_id, checkout_token),
+  CONSTRAINT fk_orders_user FOREIGN KEY (user_id) REFERENCES users(id),
+  CONSTRAINT chk_orders_total CHECK (total_cents >= 0)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE INDEX idx_orders_user_created ON orders(user_id, created_at);
+
+-- ============================================
+-- Table: order_items
+-- Prix et nom du produit figés au moment de la commande
+-- (pas de clé étrangère vers products : un produit peut être supprimé)
+-- ============================================
+CREATE TABLE order_items (
+  id BIGINT PRIMARY KEY AUTO_INCREMENT,
+  order_id BIGINT NOT NULL,
+  product_id BIGINT NOT NULL,
+  product_name VARCHAR(140) NOT NULL,
+  unit_price_cents INT NOT NULL,
+  quantity INT NOT NULL,
+  CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE,
+  CONSTRAINT chk_order_items_quantity CHECK (quantity > 0)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================
+-- Table: jobs
+-- File de traitements asynchrones (confirmation de commande, ...)
+-- Persistée pour survivre aux redémarrages : livraison "at-least-once"
+-- Un job RUNNING appartient au nœud locked_by jusqu'à locked_until (bail
+-- prolongé tant que le nœud tourne) ; seuls les baux expirés sont repris.
+-- Mise à jour d'une base existante :
+--   ALTER TABLE jobs ADD COLUMN locked_by VARCHAR(64) NULL AFTER last_error,
+--                    ADD COLUMN locked_until TIMESTAMP(3) NULL AFTER locked_by;
+--   CREATE INDEX idx_jobs_status_locked ON jobs(status, locked_until);
+-- ============================================
+CREATE TABLE jobs (
+  id BIGINT PRIMARY KEY AUTO_INCREMENT,
+  type VARCHAR(64) NOT NULL,
+  payload VARCHAR(1000) NOT NULL,
+  status ENUM('PENDING','RUNNING','DONE','FAILED') NOT NULL DEFAULT 'PENDING',
+  attempts INT NOT NULL DEFAULT 0,
+  last_error VARCHAR(500) NULL,
+  locked_by VARCHAR(64) NULL,
+  locked_until TIMESTAMP(3) NULL,
+  created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  available_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE INDEX idx_jobs_status_available ON jobs(status, available_at);
+CREATE INDEX idx_jobs_status_locked ON jobs(status, locked_until);
+
 -- ============================================
 -- Données de test - Utilisateurs
 -- Tous les mots de passe : "password123"
 -- Hash SHA-256 de "password123" = ef92b778bafe771e89245b89ecbc08a44a4e166c06659911881f383d4473e94f
+-- (ancien format, remplacé par un hash PBKDF2 salé à la première connexion)
 -- ============================================
 INSERT INTO users (email, password_hash, full_name, role) VALUES
 ('admin@minishop.com', 'ef92b778bafe771e89245b89ecbc08a44a4e166c06659911881f383d4473e94f', 'Admin MiniShop', 'ADMIN'),
@@ -101,3 +183,4 @@ INSERT INTO products (name, description, price_cents, stock) VALUES
 SELECT 'Base de données MiniShop créée avec succès!' AS status;
 SELECT COUNT(*) AS nb_users FROM users;
 SELECT COUNT(*) AS nb_products FROM products;
+SELECT COUNT(*) AS nb_orders FROM orders;
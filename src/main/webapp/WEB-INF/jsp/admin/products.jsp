@@ -120,6 +120,25 @@
                             </tbody>
                         </table>
                     </div>
+
+                    <c:if test="${not empty productPage.prevCursor or not empty productPage.nextCursor}">
+                        <nav class="p-3" aria-label="Pagination des produits">
+                            <ul class="pagination justify-content-center mb-0">
+                                <li class="page-item ${empty productPage.prevCursor ? 'disabled' : ''}">
+                                    <a class="page-link"
+                                       href="${pageContext.request.contextPath}/admin/products?before=${productPage.prevCursor}">
+                                        <i class="bi bi-chevron-left"></i> Précédent
+                                    </a>
+                                </li>
+                                <li class="page-item ${empty productPage.nextCursor ? 'disabled' : ''}">
+                                    <a class="page-link"
+                                       href="${pageContext.request.contextPath}/admin/products?after=${productPage.nextCursor}">
+                                        Suivant <i class="bi bi-chevron-right"></i>
+                                    </a>
+                                </li>
+                            </ul>
+                        </nav>
+                    </c:if>
                 </c:otherwise>
             </c:choose>
         </div>
@@ -135,6 +154,10 @@
             <i class="bi bi-grid me-2"></i>
             Voir le catalogue public
         </a>
+        <a href="${pageContext.request.contextPath}/admin/slow-queries" class="btn btn-outline-danger ms-2">
+            <i class="bi bi-speedometer2 me-2"></i>
+            Requêtes lentes
+        </a>
     </div>
 </div>
 
@@ -0,0 +1,98 @@
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ taglib prefix="c" uri="jakarta.tags.core" %>
+<%@ taglib prefix="fmt" uri="jakarta.tags.fmt" %>
+<c:set var="pageTitle" value="Requêtes lentes - Admin" scope="request"/>
+<%@ include file="/WEB-INF/jsp/common/header.jspf" %>
+
+<div class="container py-4">
+    <div class="row mb-4">
+        <div class="col-md-7">
+            <h1 class="display-5 fw-bold">
+                <i class="bi bi-speedometer2 text-danger me-2"></i>
+                Requêtes lentes
+            </h1>
+            <p class="text-muted">
+                <c:choose>
+                    <c:when test="${tracer.enabled}">
+                        Appels DAO de plus de ${tracer.thresholdMs} ms - ${tracer.slowCount} depuis le démarrage,
+                        les ${tracer.capacity} derniers sont conservés
+                    </c:when>
+                    <c:otherwise>Traçage désactivé</c:otherwise>
+                </c:choose>
+            </p>
+        </div>
+        <div class="col-md-5">
+            <form method="post" action="${pageContext.request.contextPath}/admin/slow-queries" class="d-flex gap-2">
+                <div class="input-group">
+                    <span class="input-group-text">Seuil</span>
+                    <input type="number" name="thresholdMs" min="0" max="3600000" class="form-control"
+                           value="${tracer.thresholdMs}">
+                    <span class="input-group-text">ms</span>
+                </div>
+                <button type="submit" class="btn btn-primary">Appliquer</button>
+            </form>
+            <small class="text-muted">0 désactive le traçage</small>
+        </div>
+    </div>
+
+    <div class="card border-0 shadow-sm">
+        <div class="card-header bg-primary text-white">
+            <h5 class="mb-0">
+                <i class="bi bi-list-ul me-2"></i>
+                Dernières traces
+            </h5>
+        </div>
+        <div class="card-body p-0">
+            <c:choose>
+                <c:when test="${empty traces}">
+                    <div class="alert alert-info m-3">
+                        <i class="bi bi-info-circle me-2"></i>
+                        Aucune requête lente enregistrée.
+                    </div>
+                </c:when>
+                <c:otherwise>
+                    <div class="table-responsive">
+                        <table class="table table-hover align-middle mb-0">
+                            <thead class="table-light">
+                                <tr>
+                                    <th width="90">Heure</th>
+                                    <th>Appel</th>
+                                    <th width="80" class="text-end">Total</th>
+                                    <th width="90" class="text-end">Connexion</th>
+                                    <th width="90" class="text-end">Exécution</th>
+                                    <th width="90" class="text-end">Résultats</th>
+                                </tr>
+                            </thead>
+                            <tbody>
+                                <c:forEach var="trace" items="${traces}">
+                                    <tr>
+                                        <td class="text-muted"><fmt:formatDate value="${trace.time}" pattern="HH:mm:ss"/></td>
+                                        <td>
+                                            <div class="fw-bold"><c:out value="${trace.caller}"/></div>
+                                            <c:forEach var="statement" items="${trace.statements}">
+                                                <div><small class="font-monospace text-muted"><c:out value="${statement}"/></small></div>
+                                            </c:forEach>
+                                        </td>
+                                        <td class="text-end fw-bold">${trace.totalMillis} ms</td>
+                                        <td class="text-end">${trace.acquireMillis} ms</td>
+                                        <td class="text-end">${trace.executeMillis} ms</td>
+                                        <td class="text-end">${trace.mappingMillis} ms</td>
+                                    </tr>
+                                </c:forEach>
+                            </tbody>
+                        </table>
+                    </div>
+                </c:otherwise>
+            </c:choose>
+        </div>
+    </div>
+
+    <div class="mt-4">
+        <a href="${pageContext.request.contextPath}/admin/products" class="btn btn-outline-secondary">
+            <i class="bi bi-arrow-left me-2"></i>
+            Retour à l'administration
+        </a>
+    </div>
+</div>
+
+<%@ include file="/WEB-INF/jsp/common/footer.jspf" %>
@@ -116,6 +116,16 @@
                     </span>
                 </div>
             </div>
+
+            <div class="text-end mt-3">
+                <form method="post" action="${pageContext.request.contextPath}/app/checkout">
+                    <input type="hidden" name="checkoutToken" value="${checkoutToken}">
+                    <button type="submit" class="btn btn-success btn-lg">
+                        <i class="bi bi-bag-check me-2"></i>
+                        Valider la commande
+                    </button>
+                </form>
+            </div>
         </c:otherwise>
     </c:choose>
 </div>
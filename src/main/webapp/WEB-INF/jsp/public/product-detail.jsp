@@ -48,7 +48,7 @@
                 <c:choose>
                     <c:when test="${product.stock > 0}">
                         <c:choose>
-                            <c:when test="${sessionScope.AUTH_USER != null}">
+                            <c:when test="${requestScope.AUTH_USER != null}">
                                 <form method="post" action="${pageContext.request.contextPath}/app/cart/add">
                                     <input type="hidden" name="productId" value="${product.id}">
                                     <div class="input-group mb-3">
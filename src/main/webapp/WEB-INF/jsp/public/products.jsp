@@ -66,6 +66,25 @@
                     </div>
                 </c:forEach>
             </div>
+
+            <c:if test="${not empty productPage.prevCursor or not empty productPage.nextCursor}">
+                <nav class="mt-4" aria-label="Pagination du catalogue">
+                    <ul class="pagination justify-content-center">
+                        <li class="page-item ${empty productPage.prevCursor ? 'disabled' : ''}">
+                            <a class="page-link"
+                               href="${pageContext.request.contextPath}/products?before=${productPage.prevCursor}">
+                                <i class="bi bi-chevron-left"></i> Précédent
+                            </a>
+                        </li>
+                        <li class="page-item ${empty productPage.nextCursor ? 'disabled' : ''}">
+                            <a class="page-link"
+                               href="${pageContext.request.contextPath}/products?after=${productPage.nextCursor}">
+                                Suivant <i class="bi bi-chevron-right"></i>
+                            </a>
+                        </li>
+                    </ul>
+                </nav>
+            </c:if>
         </c:otherwise>
     </c:choose>
 </div>